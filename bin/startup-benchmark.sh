@@ -0,0 +1,41 @@
+#!/bin/bash
+# Measures the time until the first output line is printed, for small inputs where the JVM startup dominates:
+#  - baseline: plain "java -jar" with the default JDK class data sharing only
+#  - launcher: bin/find-best-package with the application AppCDS archive
+# Usage: bin/startup-benchmark.sh [input file] [runs]
+set -e
+BASE_DIR=$(cd "$(dirname "$0")/.." && pwd)
+JAVA_CMD=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR=${BEST_PACKAGE_JAR:-$BASE_DIR/target/best-package-1.0-SNAPSHOT-all.jar}
+INPUT=${1:-$BASE_DIR/src/test/resources/sampleInput.txt}
+RUNS=${2:-20}
+
+# prints the milliseconds elapsed until the command printed its first line
+time_to_first_line() {
+    local start end
+    start=$(date +%s%N)
+    "$@" 2>/dev/null | {
+        read -r _
+        end=$(date +%s%N)
+        echo $(((end - start) / 1000000))
+        cat >/dev/null
+    }
+}
+
+# prints the median of the times of all the runs
+benchmark() {
+    local name=$1
+    shift
+    # warm up the file system cache
+    time_to_first_line "$@" >/dev/null
+    local times=()
+    for ((i = 0; i < RUNS; i++)); do
+        times+=("$(time_to_first_line "$@")")
+    done
+    local median
+    median=$(printf '%s\n' "${times[@]}" | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}')
+    printf '%-10s median time to first output line: %5d ms (%d runs)\n' "$name" "$median" "$RUNS"
+}
+
+benchmark baseline "$JAVA_CMD" -jar "$JAR" "$INPUT"
+benchmark launcher "$BASE_DIR/bin/find-best-package" "$INPUT"
@@ -0,0 +1,82 @@
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Subset evaluator processing the subsets in SIMD lanes with the incubating Vector API.<br>
+ * The best subset is found in three passes over the subset sums, each one a masked lane-wise operation:
+ * the max price among the subsets within the max weight, then the min weight among those having that price
+ * and finally the first (lowest) mask having both.
+ * The element tails that do not fill a whole vector are processed with scalar code.
+ */
+public class VectorSubsetEvaluator implements SubsetEvaluator {
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void computeSums(long[] values, int n, long[] sums) {
+        sums[0] = 0;
+        for (int k = 0; k < n; k++) {
+            int size = 1 << k;
+            long value = values[k];
+            LongVector valueVector = LongVector.broadcast(SPECIES, value);
+            int mask = 0;
+            for (int bound = SPECIES.loopBound(size); mask < bound; mask += SPECIES.length()) {
+                LongVector.fromArray(SPECIES, sums, mask).add(valueVector).intoArray(sums, size + mask);
+            }
+            for (; mask < size; mask++) {
+                sums[size + mask] = sums[mask] + value;
+            }
+        }
+    }
+
+    @Override
+    public int findBest(long[] weightSums, long[] priceSums, int subsets, long maxWeight) {
+        int bound = SPECIES.loopBound(subsets);
+
+        // max price of the subsets within the max weight
+        LongVector maxPrices = LongVector.broadcast(SPECIES, Long.MIN_VALUE);
+        int mask = 0;
+        for (; mask < bound; mask += SPECIES.length()) {
+            VectorMask<Long> feasible = LongVector.fromArray(SPECIES, weightSums, mask)
+                .compare(VectorOperators.LE, maxWeight);
+            maxPrices = maxPrices.lanewise(VectorOperators.MAX, LongVector.fromArray(SPECIES, priceSums, mask), feasible);
+        }
+        long bestPrice = maxPrices.reduceLanes(VectorOperators.MAX);
+        for (; mask < subsets; mask++) {
+            if (weightSums[mask] <= maxWeight && priceSums[mask] > bestPrice) {
+                bestPrice = priceSums[mask];
+            }
+        }
+
+        // min weight of the subsets within the max weight having the best price
+        LongVector minWeights = LongVector.broadcast(SPECIES, Long.MAX_VALUE);
+        for (mask = 0; mask < bound; mask += SPECIES.length()) {
+            LongVector weights = LongVector.fromArray(SPECIES, weightSums, mask);
+            VectorMask<Long> candidates = weights.compare(VectorOperators.LE, maxWeight)
+                .and(LongVector.fromArray(SPECIES, priceSums, mask).compare(VectorOperators.EQ, bestPrice));
+            minWeights = minWeights.lanewise(VectorOperators.MIN, weights, candidates);
+        }
+        long bestWeight = minWeights.reduceLanes(VectorOperators.MIN);
+        for (; mask < subsets; mask++) {
+            if (weightSums[mask] <= maxWeight && priceSums[mask] == bestPrice && weightSums[mask] < bestWeight) {
+                bestWeight = weightSums[mask];
+            }
+        }
+
+        // the first subset having both
+        for (mask = 0; mask < bound; mask += SPECIES.length()) {
+            VectorMask<Long> best = LongVector.fromArray(SPECIES, weightSums, mask).compare(VectorOperators.EQ, bestWeight)
+                .and(LongVector.fromArray(SPECIES, priceSums, mask).compare(VectorOperators.EQ, bestPrice));
+            if (best.anyTrue()) {
+                return mask + best.firstTrue();
+            }
+        }
+        for (; mask < subsets; mask++) {
+            if (weightSums[mask] == bestWeight && priceSums[mask] == bestPrice) {
+                return mask;
+            }
+        }
+        return 0;
+    }
+}
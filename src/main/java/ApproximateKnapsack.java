@@ -0,0 +1,250 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Fully polynomial time approximation scheme of the Knapsack problem: it finds a package whose price is at least
+ * <code>(1 - epsilon)</code> times the price of the best package, in a time polynomial in the number of products
+ * and <code>1 / epsilon</code> that does not depend on the weights, for the packages too large to be solved exactly in time.<ul>
+ * <li>a lower bound of the best price is found greedily, taking the products by decreasing price per weight,
+ * and the best price is at most twice this bound
+ * <li>the prices are divided by a scale of <code>epsilon * bound / products</code>, so a package loses less than
+ * one scale per product and less than <code>epsilon</code> times the best price in total
+ * <li>the scaled prices are small integers, at most <code>2 * products / epsilon</code> in total,
+ * and the Knapsack algorithm indexed by the scaled price finds the package with the min weight for every scaled price
+ * </ul>
+ * The products of the best package are recovered by divide and conquer as in {@link LargeInstanceKnapsack},
+ * so the memory is linear in the max scaled price instead of a table with a row per product.
+ * The buffers grow with the biggest package solved and are then reused.
+ */
+public class ApproximateKnapsack {
+    private static final long NO_WEIGHT = Long.MAX_VALUE;
+
+    // the min weight of the products having every scaled price and the scaled price left in it for the first half
+    private long[] minWeights = new long[0];
+    private int[] firstHalfPrices = new int[0];
+    private long exploredStates;
+
+    // the products taking part in the current package, their weights and scaled prices
+    private int[] candidates = new int[0];
+    // the candidates by decreasing price per weight, for the greedy lower bound
+    private int[] order = new int[0];
+    private long[] candidateWeights = new long[0];
+    private int[] scaledPrices = new int[0];
+    private BitSet selected;
+
+    /**
+     * Finds a package with a price of at least <code>(1 - epsilon)</code> times the price of the best package,
+     * not exceeding the max weight.
+     *
+     * @param weights   the product weights in hundredths, only the first <code>count</code> are used
+     * @param prices    the product prices in hundredths, only the first <code>count</code> are used
+     * @param count     the number of products
+     * @param maxWeight the max weight of the package in hundredths
+     * @param epsilon   the max relative price loss, between 0 and 1 excluded
+     * @return the indexes of the products in the package
+     */
+    public BitSet solve(long[] weights, long[] prices, int count, long maxWeight, double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("The epsilon should be between 0 and 1: " + epsilon);
+        }
+        BitSet result = new BitSet(count);
+        exploredStates = 0;
+        // the products that do not fit or have no price are never worth taking
+        int n = 0;
+        ensureCandidates(count);
+        for (int i = 0; i < count; i++) {
+            if (weights[i] <= maxWeight && prices[i] > 0) {
+                candidates[n++] = i;
+            }
+        }
+        if (n == 0) {
+            return result;
+        }
+
+        long bound = greedyPrice(weights, prices, n, maxWeight);
+        long scale = Math.max(1, (long) (epsilon * bound / n));
+        long totalScaledPrice = 0;
+        for (int k = 0; k < n; k++) {
+            candidateWeights[k] = weights[candidates[k]];
+            scaledPrices[k] = Math.toIntExact(prices[candidates[k]] / scale);
+            totalScaledPrice += scaledPrices[k];
+        }
+        // no package reaches more than twice the bound, one more scaled price absorbs the rounding of the scale
+        long maxScaledPrice = Math.min(totalScaledPrice, 2 * bound / scale + 1);
+        if (maxScaledPrice >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too small epsilon: " + epsilon);
+        }
+        int size = (int) maxScaledPrice + 1;
+        if (minWeights.length < size) {
+            minWeights = new long[size];
+            firstHalfPrices = new int[size];
+        }
+        this.selected = result;
+        select(0, n, (int) maxScaledPrice, maxWeight, true);
+        this.selected = null;
+        return result;
+    }
+
+    /**
+     * @return the number of states, min weights of a scaled price, explored by the last {@link #solve} call
+     */
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    /**
+     * @return the price of the package made greedily of the products with the highest price per weight,
+     * or of the most expensive product if it is more
+     */
+    private long greedyPrice(long[] weights, long[] prices, int n, long maxWeight) {
+        long maxPrice = 0;
+        for (int k = 0; k < n; k++) {
+            order[k] = candidates[k];
+            maxPrice = Math.max(maxPrice, prices[candidates[k]]);
+        }
+        sortByPricePerWeight(weights, prices, n);
+        long weight = 0;
+        long price = 0;
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            if (weight + weights[i] <= maxWeight) {
+                weight += weights[i];
+                price += prices[i];
+            }
+        }
+        return Math.max(price, maxPrice);
+    }
+
+    /**
+     * Heap sort of the first <code>n</code> product indexes by decreasing price per weight, without allocating:
+     * the insertion sort of {@link BranchAndBoundSolver} is quadratic for the large packages solved here.
+     */
+    private void sortByPricePerWeight(long[] weights, long[] prices, int n) {
+        // the heap keeps the lowest price per weight at the root, so it is moved to the end first
+        for (int k = n / 2 - 1; k >= 0; k--) {
+            siftDown(weights, prices, k, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            int root = order[0];
+            order[0] = order[end];
+            order[end] = root;
+            siftDown(weights, prices, 0, end);
+        }
+    }
+
+    private void siftDown(long[] weights, long[] prices, int k, int size) {
+        int product = order[k];
+        while (2 * k + 1 < size) {
+            int child = 2 * k + 1;
+            if (child + 1 < size && comparePricePerWeight(weights, prices, order[child + 1], order[child]) < 0) {
+                child++;
+            }
+            if (comparePricePerWeight(weights, prices, order[child], product) >= 0) {
+                break;
+            }
+            order[k] = order[child];
+            k = child;
+        }
+        order[k] = product;
+    }
+
+    /**
+     * Compares the price per weight of two products with a price by cross-multiplication,
+     * the products without weight have an infinite one and the equal ones are ordered by index, the lower first.
+     *
+     * @return a positive value if the product a comes first, that is has the higher price per weight
+     */
+    private static int comparePricePerWeight(long[] weights, long[] prices, int a, int b) {
+        int comparison;
+        if (weights[a] == 0 || weights[b] == 0) {
+            comparison = Boolean.compare(weights[a] == 0, weights[b] == 0);
+        } else {
+            comparison = compareProducts(prices[a], weights[b], prices[b], weights[a]);
+        }
+        return comparison != 0 ? comparison : Integer.compare(b, a);
+    }
+
+    /**
+     * @return the comparison of <code>a1 * b1</code> and <code>a2 * b2</code> for non-negative values, without overflow
+     */
+    private static int compareProducts(long a1, long b1, long a2, long b2) {
+        long high1 = Math.multiplyHigh(a1, b1);
+        long high2 = Math.multiplyHigh(a2, b2);
+        return high1 != high2 ? Long.compare(high1, high2) : Long.compareUnsigned(a1 * b1, a2 * b2);
+    }
+
+    /**
+     * Selects the candidates from <code>from</code> until <code>to</code> having the target scaled price with the min weight,
+     * or at the top level the ones having the highest scaled price not exceeding the target within the max weight.
+     */
+    private void select(int from, int to, int target, long maxWeight, boolean findTarget) {
+        if (to - from == 0) {
+            return;
+        }
+        if (to - from == 1 && !findTarget) {
+            // the target of a single candidate is either its scaled price or 0
+            if (target > 0) {
+                selected.set(candidates[from]);
+            }
+            return;
+        }
+        int middle = to - from == 1 ? from : (from + to) >>> 1;
+        Arrays.fill(minWeights, 0, target + 1, NO_WEIGHT);
+        minWeights[0] = 0;
+        for (int k = from; k < middle; k++) {
+            addCandidate(k, target, maxWeight, false);
+        }
+        for (int p = 0; p <= target; p++) {
+            firstHalfPrices[p] = p;
+        }
+        for (int k = middle; k < to; k++) {
+            addCandidate(k, target, maxWeight, true);
+        }
+        if (findTarget) {
+            while (minWeights[target] > maxWeight) {
+                target--;
+            }
+        }
+        int firstHalfPrice = firstHalfPrices[target];
+        select(from, middle, firstHalfPrice, maxWeight, false);
+        select(middle, to, target - firstHalfPrice, maxWeight, false);
+    }
+
+    /**
+     * Adds the candidate to the min weights of the scaled prices up to the target.
+     *
+     * @param trackFirstHalf true to update the scaled price left for the first half of the candidates
+     */
+    private void addCandidate(int k, int target, long maxWeight, boolean trackFirstHalf) {
+        int price = scaledPrices[k];
+        long weight = candidateWeights[k];
+        if (price > target) {
+            return;
+        }
+        exploredStates += target - price + 1;
+        // go down so every candidate is added at most once
+        for (int p = target; p >= price; p--) {
+            int without = p - price;
+            if (minWeights[without] == NO_WEIGHT) {
+                continue;
+            }
+            long candidateWeight = minWeights[without] + weight;
+            // on equal weights the package without the candidate is kept, it has the lower indexes
+            if (candidateWeight <= maxWeight && candidateWeight < minWeights[p]) {
+                minWeights[p] = candidateWeight;
+                if (trackFirstHalf) {
+                    firstHalfPrices[p] = firstHalfPrices[without];
+                }
+            }
+        }
+    }
+
+    private void ensureCandidates(int count) {
+        if (candidates.length < count) {
+            candidates = new int[count];
+            order = new int[count];
+            candidateWeights = new long[count];
+            scaledPrices = new int[count];
+        }
+    }
+}
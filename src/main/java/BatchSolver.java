@@ -0,0 +1,126 @@
+import com.google.common.base.Preconditions;
+
+import java.util.stream.IntStream;
+
+/**
+ * Finds the best packages of many problems given as flat primitive arrays, for callers that already hold the products
+ * in memory and would otherwise render them as text lines:<ul>
+ * <li>the products of the problem p are the ones from <code>offsets[p]</code> to <code>offsets[p + 1]</code>, excluded,
+ * of the <code>weights</code> and <code>prices</code> arrays, and its max weight is <code>capacities[p]</code>
+ * <li>the best package of the problem p is written into <code>masks[p]</code>, the bit i for its product i
+ * </ul>
+ * The weights and prices are in hundredths and must be within the default limits, see {@link PackageLimits#DEFAULT}.
+ * The products of a problem are in the order of their numbers, the ties are resolved by the lowest mask as for the lines.
+ * The problems are split into chunks solved in parallel, every thread with the solver of its {@link SolverWorkspace},
+ * so nothing is allocated per problem.
+ */
+public class BatchSolver {
+    // problems per parallel task, big enough to amortize the task and small enough to balance the threads
+    static final int CHUNK_SIZE = 64;
+
+    private final PackageSpecification.FindBestPackageStrategy strategy;
+
+    /**
+     * @param strategy one of the strategies solving primitive arrays: KNAPSACK, VECTORIZED, DP_BY_PRICE,
+     *                 BRANCH_AND_BOUND, BOUNDED_KNAPSACK or PARETO
+     */
+    public BatchSolver(PackageSpecification.FindBestPackageStrategy strategy) {
+        Preconditions.checkArgument(strategy != PackageSpecification.FindBestPackageStrategy.OPTIMIZED
+                && strategy != PackageSpecification.FindBestPackageStrategy.BRUTE_FORCE
+                && strategy != PackageSpecification.FindBestPackageStrategy.LARGE_INSTANCE
+                && strategy != PackageSpecification.FindBestPackageStrategy.APPROXIMATE
+                && strategy != PackageSpecification.FindBestPackageStrategy.ADAPTIVE,
+            "The strategy %s does not solve primitive arrays.", strategy);
+        this.strategy = strategy;
+    }
+
+    public BatchSolver() {
+        this(PackageSpecification.FindBestPackageStrategy.KNAPSACK);
+    }
+
+    /**
+     * Finds the best packages of all the problems.
+     *
+     * @param offsets    the offsets of the products of every problem followed by the end offset of the last one
+     * @param weights    the product weights in hundredths
+     * @param prices     the product prices in hundredths
+     * @param capacities the max weight of every problem in hundredths
+     * @param masks      the output best package of every problem
+     * @throws IllegalArgumentException in case a problem exceeds the default limits, then no mask is written
+     */
+    public void solve(int[] offsets, long[] weights, long[] prices, long[] capacities, int[] masks) {
+        int problems = capacities.length;
+        if (offsets.length != problems + 1) {
+            throw new IllegalArgumentException("There should be one offset more than the problems.");
+        }
+        if (masks.length < problems) {
+            throw new IllegalArgumentException("The masks should have one element per problem.");
+        }
+        if (weights.length != prices.length) {
+            throw new IllegalArgumentException("The weights and prices should have the same length.");
+        }
+        if (!(problems == 0 || offsets[0] == 0 && offsets[problems] == weights.length)) {
+            throw new IllegalArgumentException("The offsets should cover all the products.");
+        }
+        for (int p = 0; p < problems; p++) {
+            validate(p, offsets, weights, prices, capacities);
+        }
+        int chunks = (problems + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            SolverWorkspace workspace = SolverWorkspace.current();
+            int end = Math.min(problems, (chunk + 1) * CHUNK_SIZE);
+            for (int p = chunk * CHUNK_SIZE; p < end; p++) {
+                masks[p] = (int) solve(workspace, offsets[p], offsets[p + 1], weights, prices, capacities[p]);
+            }
+        });
+    }
+
+    private static void validate(int p, int[] offsets, long[] weights, long[] prices, long[] capacities) {
+        PackageLimits limits = PackageLimits.DEFAULT;
+        int count = offsets[p + 1] - offsets[p];
+        if (!(count >= 0 && count <= limits.getMaxPackageProducts())) {
+            throw new IllegalArgumentException("The problem " + p + " has " + count + " products.");
+        }
+        if (!(capacities[p] >= 0 && capacities[p] <= limits.getMaxPackageWeight())) {
+            throw new IllegalArgumentException("The problem " + p + " has an invalid max weight: " + capacities[p]);
+        }
+        for (int i = offsets[p]; i < offsets[p + 1]; i++) {
+            if (!(weights[i] >= 0 && weights[i] <= limits.getMaxProductWeight())) {
+                throw new IllegalArgumentException("The problem " + p + " has an invalid product weight: " + weights[i]);
+            }
+            if (!(prices[i] >= 0 && prices[i] <= limits.getMaxProductPrice())) {
+                throw new IllegalArgumentException("The problem " + p + " has an invalid product price: " + prices[i]);
+            }
+        }
+    }
+
+    /**
+     * Copies the products of one problem into the workspace arrays and solves it.
+     */
+    private long solve(SolverWorkspace workspace, int start, int end, long[] weights, long[] prices, long capacity) {
+        int count = end - start;
+        long[] workspaceWeights = workspace.getWeights();
+        long[] workspacePrices = workspace.getPrices();
+        System.arraycopy(weights, start, workspaceWeights, 0, count);
+        System.arraycopy(prices, start, workspacePrices, 0, count);
+        return getSolver(workspace, workspacePrices, count).solve(workspaceWeights, workspacePrices, count, capacity);
+    }
+
+    private PackageSolver getSolver(SolverWorkspace workspace, long[] prices, int count) {
+        switch (strategy) {
+            case VECTORIZED:
+                return workspace.getSubsetSumsSolver();
+            case DP_BY_PRICE:
+                PriceIndexedKnapsack priceIndexedKnapsack = workspace.getPriceIndexedKnapsack();
+                return priceIndexedKnapsack.canSolve(prices, count) ? priceIndexedKnapsack : workspace.getKnapsack();
+            case BRANCH_AND_BOUND:
+                return workspace.getBranchAndBoundSolver();
+            case BOUNDED_KNAPSACK:
+                return workspace.getBoundedKnapsack();
+            case PARETO:
+                return workspace.getParetoSolver();
+            default:
+                return workspace.getKnapsack();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+import java.util.BitSet;
+import java.util.Comparator;
+
+/**
+ * Orders bit sets as the binary numbers they represent, the highest differing bit decides.<br>
+ * It is used as the last tie-break of the best package, when two packages have the same price and weight,
+ * so that all the strategies choose the same package: the one with the lower mask.
+ */
+public final class BitSetComparator implements Comparator<BitSet> {
+    public static final BitSetComparator INSTANCE = new BitSetComparator();
+
+    private BitSetComparator() {
+    }
+
+    @Override
+    public int compare(BitSet bitSet1, BitSet bitSet2) {
+        BitSet difference = (BitSet) bitSet1.clone();
+        difference.xor(bitSet2);
+        int highest = difference.length() - 1;
+        if (highest < 0) {
+            return 0;
+        }
+        return bitSet1.get(highest) ? 1 : -1;
+    }
+}
@@ -0,0 +1,172 @@
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Knapsack algorithm for packages with many identical products.<br>
+ * The products with the same weight and price are grouped into one product type with a multiplicity,
+ * so the algorithm chooses how many products of every type are taken instead of deciding for every product.
+ * The products taken from a type are always the ones with the lowest numbers.<br>
+ * It is a bounded knapsack computed on a single row indexed by the capacity that keeps, for every capacity,
+ * the best package within it as its price, weight and bit mask. The masks of disjoint product types add up
+ * like the prices and the weights, so comparing the (price, weight, mask) of the partial packages gives directly
+ * the package with the lowest mask among the best ones, the same as the other algorithms.
+ * The capacities are counted in units of the greatest common divisor of the weights,
+ * which keeps the row short for weights with few decimals.
+ * The buffers are allocated once for the max number of products and the max capacity.
+ */
+public class BoundedKnapsack implements PackageSolver {
+    private final int maxProducts;
+    private final int maxCapacity;
+
+    // the best package within every capacity
+    private final long[] bestPrices;
+    private final long[] bestWeights;
+    private final long[] bestMasks;
+
+    // the product types: their weight, price and the range of their products in typeProducts, for every product its type
+    private final long[] typeWeights;
+    private final long[] typePrices;
+    private final int[] typeStarts;
+    private final int[] typeSizes;
+    private final int[] typeProducts;
+    private final int[] productTypes;
+    private long exploredStates;
+
+    /**
+     * @param maxProducts the max number of products of a package
+     * @param maxCapacity the max weight of a package in hundredths
+     */
+    public BoundedKnapsack(int maxProducts, int maxCapacity) {
+        Preconditions.checkArgument(maxProducts >= 0 && maxProducts < Long.SIZE, "The max products should be between 0 and 63.");
+        Preconditions.checkArgument(maxCapacity >= 0 && maxCapacity < Integer.MAX_VALUE, "The max capacity should be between 0 and %s.", Integer.MAX_VALUE - 1);
+        this.maxProducts = maxProducts;
+        this.maxCapacity = maxCapacity;
+        this.bestPrices = new long[maxCapacity + 1];
+        this.bestWeights = new long[maxCapacity + 1];
+        this.bestMasks = new long[maxCapacity + 1];
+        this.typeWeights = new long[maxProducts];
+        this.typePrices = new long[maxProducts];
+        this.typeStarts = new int[maxProducts + 1];
+        this.typeSizes = new int[maxProducts];
+        this.typeProducts = new int[maxProducts];
+        this.productTypes = new int[maxProducts];
+    }
+
+    @Override
+    public long solve(long[] weights, long[] prices, int count, long maxWeight) {
+        if (count > maxProducts) {
+            throw new IllegalArgumentException("Too many products: " + count);
+        }
+        if (maxWeight > maxCapacity) {
+            throw new IllegalArgumentException("Too big max weight: " + maxWeight);
+        }
+        exploredStates = 0;
+        if (maxWeight < 0) {
+            return 0;
+        }
+        int types = group(weights, prices, count);
+
+        long unit = 0;
+        for (int i = 0; i < count; i++) {
+            unit = gcd(unit, weights[i]);
+        }
+        int capacity = (int) (unit == 0 ? 0 : maxWeight / unit);
+        Arrays.fill(bestPrices, 0, capacity + 1, 0);
+        Arrays.fill(bestWeights, 0, capacity + 1, 0);
+        Arrays.fill(bestMasks, 0, capacity + 1, 0);
+
+        for (int t = 0; t < types; t++) {
+            int typeWeight = (int) (unit == 0 ? 0 : typeWeights[t] / unit);
+            // go down so the packages of the lower capacities do not contain the current type yet,
+            // the package of the current capacity is only replaced after all the multiplicities are tried
+            for (int c = capacity; c >= typeWeight; c--) {
+                long price = bestPrices[c];
+                long weight = bestWeights[c];
+                long mask = bestMasks[c];
+                long addedPrice = 0;
+                long addedWeight = 0;
+                long addedMask = 0;
+                int remaining = c;
+                for (int k = typeStarts[t]; k < typeStarts[t + 1] && remaining >= typeWeight; k++) {
+                    remaining -= typeWeight;
+                    exploredStates++;
+                    addedPrice += typePrices[t];
+                    addedWeight += typeWeights[t];
+                    addedMask |= 1L << typeProducts[k];
+                    long candidatePrice = bestPrices[remaining] + addedPrice;
+                    long candidateWeight = bestWeights[remaining] + addedWeight;
+                    long candidateMask = bestMasks[remaining] + addedMask;
+                    if (isBetter(candidatePrice, candidateWeight, candidateMask, price, weight, mask)) {
+                        price = candidatePrice;
+                        weight = candidateWeight;
+                        mask = candidateMask;
+                    }
+                }
+                bestPrices[c] = price;
+                bestWeights[c] = weight;
+                bestMasks[c] = mask;
+            }
+        }
+        return bestMasks[capacity];
+    }
+
+    @Override
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    /**
+     * Groups the products with the same weight and price, keeping the products of every type in ascending order.
+     *
+     * @return the number of product types
+     */
+    private int group(long[] weights, long[] prices, int count) {
+        int types = 0;
+        for (int i = 0; i < count; i++) {
+            int type = 0;
+            while (type < types && (typeWeights[type] != weights[i] || typePrices[type] != prices[i])) {
+                type++;
+            }
+            if (type == types) {
+                typeWeights[type] = weights[i];
+                typePrices[type] = prices[i];
+                typeSizes[type] = 0;
+                types++;
+            }
+            productTypes[i] = type;
+            typeSizes[type]++;
+        }
+        typeStarts[0] = 0;
+        for (int type = 0; type < types; type++) {
+            typeStarts[type + 1] = typeStarts[type] + typeSizes[type];
+            // from now on the size is the number of products already placed
+            typeSizes[type] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            int type = productTypes[i];
+            typeProducts[typeStarts[type] + typeSizes[type]++] = i;
+        }
+        return types;
+    }
+
+    /**
+     * Compares the (price, weight, mask) of two packages: the higher price, then the lower weight, then the lower mask.
+     */
+    private static boolean isBetter(long price, long weight, long mask, long otherPrice, long otherWeight, long otherMask) {
+        return price > otherPrice
+            || (price == otherPrice && (weight < otherWeight || (weight == otherWeight && mask < otherMask)));
+    }
+
+    /**
+     * @return the greatest common divisor of two non-negative values, the other one if a value is 0
+     */
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,221 @@
+import com.google.common.base.Preconditions;
+
+/**
+ * Anytime branch and bound algorithm that can be stopped at a deadline.<br>
+ * It starts from the greedy package, taking the products by price per weight while they fit, as the best package so far
+ * and then searches the including / excluding decisions of the products in the same order, skipping the branches whose
+ * upper bound price, the price of the fractional knapsack of the remaining products, is lower than the best price.
+ * When the deadline expires the search stops and the best package found so far is returned,
+ * which is then flagged by {@link #isOptimal()}.<br>
+ * The products order is kept in a buffer allocated once for the max number of products.
+ */
+public class BranchAndBoundSolver implements PackageSolver {
+    // System.nanoTime is too slow to be called for every node of the search
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final int maxProducts;
+    // the indexes of the products with a price ordered by price per weight, descending
+    private final int[] order;
+    private int ordered;
+
+    // the products of the current package
+    private long[] weights;
+    private long[] prices;
+    private int count;
+    private long maxWeight;
+
+    private boolean hasDeadline;
+    private long deadline;
+    private long nodes;
+    private boolean expired;
+    private SolverTrace trace;
+
+    // the best package found so far
+    private long bestMask;
+    private long bestPrice;
+    private long bestWeight;
+
+    /**
+     * @param maxProducts the max number of products of a package
+     */
+    public BranchAndBoundSolver(int maxProducts) {
+        Preconditions.checkArgument(maxProducts >= 0 && maxProducts < Long.SIZE, "The max products should be between 0 and 63.");
+        this.maxProducts = maxProducts;
+        this.order = new int[maxProducts];
+    }
+
+    @Override
+    public long solve(long[] weights, long[] prices, int count, long maxWeight) {
+        hasDeadline = false;
+        return search(weights, prices, count, maxWeight);
+    }
+
+    /**
+     * Finds the best package like {@link #solve(long[], long[], int, long)} but stops at the deadline.
+     *
+     * @param deadline the deadline as a {@link System#nanoTime()} value
+     * @return the bit mask of the best package found until the deadline, {@link #isOptimal()} tells if it is the best one
+     */
+    public long solve(long[] weights, long[] prices, int count, long maxWeight, long deadline) {
+        hasDeadline = true;
+        this.deadline = deadline;
+        return search(weights, prices, count, maxWeight);
+    }
+
+    @Override
+    public long getExploredStates() {
+        return nodes;
+    }
+
+    /**
+     * Records the states by the product being decided and the remaining capacity,
+     * the branches cut by their upper bound are recorded as pruned.
+     */
+    @Override
+    public void setTrace(SolverTrace trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * @return false if the deadline of the last search expired and its package may not be the best one
+     */
+    public boolean isOptimal() {
+        return !expired;
+    }
+
+    private long search(long[] weights, long[] prices, int count, long maxWeight) {
+        if (count > maxProducts) {
+            throw new IllegalArgumentException("Too many products: " + count);
+        }
+        this.weights = weights;
+        this.prices = prices;
+        this.count = count;
+        this.maxWeight = maxWeight;
+        nodes = 0;
+        expired = false;
+        bestMask = 0;
+        bestPrice = 0;
+        bestWeight = 0;
+        if (maxWeight >= 0) {
+            sortByPricePerWeight();
+            takeGreedy();
+            if (isDeadlineExpired()) {
+                expired = true;
+            } else {
+                search(0, 0, 0, 0);
+            }
+        }
+        this.weights = null;
+        this.prices = null;
+        return bestMask;
+    }
+
+    /**
+     * Insertion sort of the product indexes, there are only a few products and this does not allocate.
+     * The products without price are left out, a package without them is always at least as good,
+     * so the order is total and the fractional knapsack of any suffix is an upper bound.
+     */
+    private void sortByPricePerWeight() {
+        ordered = 0;
+        for (int product = 0; product < count; product++) {
+            if (prices[product] <= 0) {
+                continue;
+            }
+            int j = ordered++;
+            while (j > 0 && hasHigherPricePerWeight(product, order[j - 1])) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = product;
+        }
+    }
+
+    /**
+     * Compares the price per weight of two products with a price, the products without weight have an infinite one.
+     * The equal ones keep the index order as the insertion sort is stable.
+     */
+    private boolean hasHigherPricePerWeight(int a, int b) {
+        if (weights[a] == 0 || weights[b] == 0) {
+            return weights[a] == 0 && weights[b] != 0;
+        }
+        return prices[a] * weights[b] > prices[b] * weights[a];
+    }
+
+    private void takeGreedy() {
+        long mask = 0;
+        long price = 0;
+        long weight = 0;
+        for (int k = 0; k < ordered; k++) {
+            int product = order[k];
+            if (weight + weights[product] <= maxWeight) {
+                mask |= 1L << product;
+                price += prices[product];
+                weight += weights[product];
+            }
+        }
+        consider(mask, price, weight);
+    }
+
+    /**
+     * Searches the decisions for the products from the position k in the price per weight order.
+     */
+    private void search(int k, long mask, long price, long weight) {
+        if (k == ordered || expired) {
+            return;
+        }
+        if (++nodes % DEADLINE_CHECK_INTERVAL == 0 && isDeadlineExpired()) {
+            expired = true;
+            return;
+        }
+        // a branch with the same upper bound as the best price can still have a lower weight
+        int product = order[k];
+        if (upperBound(k, price, maxWeight - weight) < bestPrice) {
+            if (trace != null) {
+                trace.record(product, maxWeight - weight, false);
+            }
+            return;
+        }
+        if (trace != null) {
+            trace.record(product, maxWeight - weight, true);
+        }
+        if (weight + weights[product] <= maxWeight) {
+            long includingMask = mask | (1L << product);
+            long includingPrice = price + prices[product];
+            long includingWeight = weight + weights[product];
+            consider(includingMask, includingPrice, includingWeight);
+            search(k + 1, includingMask, includingPrice, includingWeight);
+        }
+        search(k + 1, mask, price, weight);
+    }
+
+    /**
+     * @return the price of the fractional knapsack of the products from the position k, rounded up
+     */
+    private long upperBound(int k, long price, long capacity) {
+        long bound = price;
+        for (int j = k; j < ordered; j++) {
+            int product = order[j];
+            if (weights[product] <= capacity) {
+                capacity -= weights[product];
+                bound += prices[product];
+            } else {
+                return bound + (capacity * prices[product] + weights[product] - 1) / weights[product];
+            }
+        }
+        return bound;
+    }
+
+    private void consider(long mask, long price, long weight) {
+        if (price > bestPrice
+            || (price == bestPrice && weight < bestWeight)
+            || (price == bestPrice && weight == bestWeight && mask < bestMask)) {
+            bestMask = mask;
+            bestPrice = price;
+            bestWeight = weight;
+        }
+    }
+
+    private boolean isDeadlineExpired() {
+        return hasDeadline && System.nanoTime() - deadline >= 0;
+    }
+}
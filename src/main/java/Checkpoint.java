@@ -0,0 +1,104 @@
+import com.google.common.base.MoreObjects;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/**
+ * Progress state of a run that allows resuming it after a failure:<ul>
+ * <li>the index of the next input line to process
+ * <li>the byte offset of that line in the input file
+ * <li>the length of the output file containing the results of all the previous lines
+ * </ul>
+ * The checkpoint file is always replaced atomically so a crash during the write leaves the previous checkpoint intact.
+ */
+public class Checkpoint {
+    private static final String LINE_INDEX = "lineIndex";
+    private static final String INPUT_OFFSET = "inputOffset";
+    private static final String OUTPUT_LENGTH = "outputLength";
+
+    public static final Checkpoint START = new Checkpoint(0, 0, 0);
+
+    private final int lineIndex;
+    private final long inputOffset;
+    private final long outputLength;
+
+    public Checkpoint(int lineIndex, long inputOffset, long outputLength) {
+        this.lineIndex = lineIndex;
+        this.inputOffset = inputOffset;
+        this.outputLength = outputLength;
+    }
+
+    /**
+     * Reads a checkpoint file.
+     *
+     * @return the checkpoint or {@link #START} in case the file does not exist
+     * @throws IOException in case the file cannot be read or is corrupted
+     */
+    public static Checkpoint read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return START;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            return new Checkpoint(
+                Integer.parseInt(properties.getProperty(LINE_INDEX)),
+                Long.parseLong(properties.getProperty(INPUT_OFFSET)),
+                Long.parseLong(properties.getProperty(OUTPUT_LENGTH)));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid checkpoint file: " + path, e);
+        }
+    }
+
+    /**
+     * Writes the checkpoint into a temporary file that is forced to the storage device and then atomically replaces
+     * the given file, so after a crash or a power loss the file contains either the previous or the new checkpoint.
+     */
+    public void write(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(LINE_INDEX, Integer.toString(lineIndex));
+        properties.setProperty(INPUT_OFFSET, Long.toString(inputOffset));
+        properties.setProperty(OUTPUT_LENGTH, Long.toString(outputLength));
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            properties.store(writer, "FindBestPackage checkpoint");
+            writer.flush();
+            channel.force(true);
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public int getLineIndex() {
+        return lineIndex;
+    }
+
+    public long getInputOffset() {
+        return inputOffset;
+    }
+
+    public long getOutputLength() {
+        return outputLength;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("lineIndex", lineIndex)
+            .add("inputOffset", inputOffset)
+            .add("outputLength", outputLength)
+            .toString();
+    }
+}
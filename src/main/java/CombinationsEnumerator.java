@@ -0,0 +1,96 @@
+import com.google.common.base.Preconditions;
+
+/**
+ * Enumerates the combinations of elements with the same pruning as {@link CombinationsStream}, the reference implementation,
+ * but depth first on an explicit stack and with primitive callbacks, so nothing is boxed or allocated per combination:<ul>
+ * <li>a combination is extended with an element only if the {@link ExtensionPredicate} accepts it,
+ * otherwise none of the combinations containing both is enumerated
+ * <li>the total weight and price of the current combination are kept on the stack,
+ * updated with the weight and price of the element added or removed instead of being summed again
+ * <li>every combination is given to the {@link CombinationConsumer} as a mask, the bit i for the element i,
+ * starting with the empty one
+ * </ul>
+ * The stack is allocated once, for the max number of elements, and reused for every enumeration.
+ */
+public class CombinationsEnumerator {
+    /**
+     * Decides if a combination can be extended with one more element.
+     */
+    @FunctionalInterface
+    public interface ExtensionPredicate {
+        /**
+         * @param mask    the elements of the combination
+         * @param weight  the total weight of the combination
+         * @param price   the total price of the combination
+         * @param element the element to add, greater than all the elements of the combination
+         */
+        boolean canExtend(long mask, long weight, long price, int element);
+    }
+
+    /**
+     * Receives the enumerated combinations.
+     */
+    @FunctionalInterface
+    public interface CombinationConsumer {
+        void accept(long mask, long weight, long price);
+    }
+
+    private final int maxElements;
+
+    // the elements of the current combination and the total weight and price of its prefixes
+    private final int[] elements;
+    private final long[] weights;
+    private final long[] prices;
+
+    /**
+     * @param maxElements the max number of elements, at most 63 to fit the masks
+     */
+    public CombinationsEnumerator(int maxElements) {
+        Preconditions.checkArgument(maxElements >= 0 && maxElements < Long.SIZE, "The max elements should be between 0 and 63.");
+        this.maxElements = maxElements;
+        this.elements = new int[maxElements];
+        this.weights = new long[maxElements + 1];
+        this.prices = new long[maxElements + 1];
+    }
+
+    /**
+     * Enumerates the combinations of the first <code>n</code> elements,
+     * each combination is followed by its extensions with greater elements, in increasing order.
+     *
+     * @param elementWeights the weight of every element
+     * @param elementPrices  the price of every element
+     * @return the number of enumerated combinations
+     */
+    public long enumerate(long[] elementWeights, long[] elementPrices, int n,
+                          ExtensionPredicate canExtendCombination, CombinationConsumer consumer) {
+        if (!(n >= 0 && n <= maxElements)) {
+            throw new IllegalArgumentException("Invalid number of elements: " + n);
+        }
+        int depth = 0;
+        long mask = 0;
+        int next = 0;
+        long combinations = 1;
+        consumer.accept(0, 0, 0);
+        while (true) {
+            if (next < n) {
+                if (canExtendCombination.canExtend(mask, weights[depth], prices[depth], next)) {
+                    elements[depth] = next;
+                    weights[depth + 1] = weights[depth] + elementWeights[next];
+                    prices[depth + 1] = prices[depth] + elementPrices[next];
+                    depth++;
+                    mask |= 1L << next;
+                    consumer.accept(mask, weights[depth], prices[depth]);
+                    combinations++;
+                }
+                next++;
+            } else if (depth > 0) {
+                // remove the last element and continue with its successor
+                depth--;
+                mask &= ~(1L << elements[depth]);
+                next = elements[depth] + 1;
+            } else {
+                return combinations;
+            }
+        }
+    }
+}
@@ -8,6 +8,13 @@ import java.util.function.BiFunction;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+/**
+ * Streams the combinations of <code>n</code> elements as bit sets: a combination is extended only with greater elements
+ * accepted by the <code>canExtendCombination</code> function, otherwise none of the combinations containing both is streamed.<br>
+ * It has no caller in the main code anymore: the {@link PackageSpecification.FindBestPackageStrategy#OPTIMIZED}
+ * strategy enumerates the combinations with {@link CombinationsEnumerator}. It is kept only as the reference
+ * implementation that the enumerator is checked against, with the same pruning, by its equivalence test.
+ */
 public class CombinationsStream {
     private final int n;
     private final BiFunction<BitSet, Integer, Boolean> canExtendCombination;
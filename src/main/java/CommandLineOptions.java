@@ -0,0 +1,360 @@
+import com.google.common.base.Preconditions;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Parses and holds the command line arguments of {@link FindBestPackage}:<br>
+ * <code>[--strategy &lt;name&gt; [--time-budget &lt;millis&gt;] [--epsilon &lt;epsilon&gt;]]
+ * [--max-weight &lt;weight&gt;] [--max-products &lt;count&gt;] [--max-product-weight &lt;weight&gt;] [--max-product-price &lt;price&gt;]
+ * [--large-instance-threads &lt;count&gt;]
+ * [--output &lt;file&gt; [--watch]] [--checkpoint &lt;file&gt; [--checkpoint-interval &lt;lines&gt;] [--resume]]
+ * [--workers &lt;count&gt; | --range &lt;start&gt;-&lt;end&gt; [--first-line &lt;index&gt;]]
+ * [--trace &lt;file&gt; [--trace-threshold &lt;millis&gt;]] [--cache &lt;file&gt; [--cache-slots &lt;count&gt;]]
+ * [--adaptive-table &lt;file&gt;] &lt;input file&gt;</code>
+ */
+public class CommandLineOptions {
+    static final String USAGE = "Usage: FindBestPackage"
+        + " [--strategy " + Arrays.stream(PackageSpecification.FindBestPackageStrategy.values())
+        .map(Enum::name).collect(Collectors.joining("|")) + " [--time-budget <millis>] [--epsilon <epsilon>]]"
+        + " [--max-weight <weight>] [--max-products <count>] [--max-product-weight <weight>] [--max-product-price <price>]"
+        + " [--large-instance-threads <count>]"
+        + " [--output <file> [--watch]]"
+        + " [--checkpoint <file> [--checkpoint-interval <lines>] [--resume]]"
+        + " [--workers <count> | --range <start>-<end> [--first-line <index>]]"
+        + " [--trace <file> [--trace-threshold <millis>]]"
+        + " [--cache <file> [--cache-slots <count>]]"
+        + " [--adaptive-table <file>]"
+        + " <input file>";
+
+    static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+    static final Duration DEFAULT_TRACE_THRESHOLD = Duration.ofMillis(100);
+
+    private PackageSpecification.FindBestPackageStrategy strategy = PackageSpecification.FindBestPackageStrategy.KNAPSACK;
+    private Duration timeBudget;
+    private Double epsilon;
+    private long maxPackageWeight = PackageLimits.DEFAULT.getMaxPackageWeight();
+    private int maxPackageProducts = PackageLimits.DEFAULT.getMaxPackageProducts();
+    private long maxProductWeight = PackageLimits.DEFAULT.getMaxProductWeight();
+    private long maxProductPrice = PackageLimits.DEFAULT.getMaxProductPrice();
+    private PackageLimits limits;
+    private int largeInstanceThreads;
+    private ForkJoinPool largeInstancePool;
+    private Path inputPath;
+    private Path outputPath;
+    private Path checkpointPath;
+    private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+    private boolean resume;
+    private boolean watch;
+    private int workers;
+    private long[] range;
+    private int firstLineIndex;
+    private Path tracePath;
+    private Duration traceThreshold;
+    private Path cachePath;
+    private int cacheSlots = ResultCache.DEFAULT_SLOTS;
+    private Path adaptiveTablePath;
+
+    private CommandLineOptions() {
+    }
+
+    /**
+     * Parses the command line arguments.
+     *
+     * @throws IllegalArgumentException in case the arguments are not valid
+     */
+    public static CommandLineOptions parse(String[] args) {
+        Preconditions.checkArgument(args != null && args.length > 0, "One argument is required: the input file path.");
+        CommandLineOptions options = new CommandLineOptions();
+        int i = 0;
+        while (i < args.length) {
+            String arg = args[i++];
+            switch (arg) {
+                case "--strategy":
+                    options.strategy = strategy(value(args, i++, arg));
+                    break;
+                case "--time-budget":
+                    options.timeBudget = Duration.ofMillis(positiveInt(value(args, i++, arg), arg));
+                    break;
+                case "--epsilon":
+                    options.epsilon = epsilon(value(args, i++, arg), arg);
+                    break;
+                case "--max-weight":
+                    options.maxPackageWeight = fixedPoint(value(args, i++, arg), arg);
+                    break;
+                case "--max-products":
+                    options.maxPackageProducts = positiveInt(value(args, i++, arg), arg);
+                    break;
+                case "--max-product-weight":
+                    options.maxProductWeight = fixedPoint(value(args, i++, arg), arg);
+                    break;
+                case "--max-product-price":
+                    options.maxProductPrice = fixedPoint(value(args, i++, arg), arg);
+                    break;
+                case "--large-instance-threads":
+                    options.largeInstanceThreads = positiveInt(value(args, i++, arg), arg);
+                    break;
+                case "--output":
+                    options.outputPath = Path.of(value(args, i++, arg));
+                    break;
+                case "--checkpoint":
+                    options.checkpointPath = Path.of(value(args, i++, arg));
+                    break;
+                case "--checkpoint-interval":
+                    options.checkpointInterval = positiveInt(value(args, i++, arg), arg);
+                    break;
+                case "--resume":
+                    options.resume = true;
+                    break;
+                case "--watch":
+                    options.watch = true;
+                    break;
+                case "--workers":
+                    options.workers = positiveInt(value(args, i++, arg), arg);
+                    break;
+                case "--range":
+                    options.range = range(value(args, i++, arg), arg);
+                    break;
+                case "--first-line":
+                    options.firstLineIndex = nonNegativeInt(value(args, i++, arg), arg);
+                    break;
+                case "--trace":
+                    options.tracePath = Path.of(value(args, i++, arg));
+                    break;
+                case "--trace-threshold":
+                    options.traceThreshold = Duration.ofMillis(nonNegativeInt(value(args, i++, arg), arg));
+                    break;
+                case "--cache":
+                    options.cachePath = Path.of(value(args, i++, arg));
+                    break;
+                case "--cache-slots":
+                    options.cacheSlots = positiveInt(value(args, i++, arg), arg);
+                    break;
+                case "--adaptive-table":
+                    options.adaptiveTablePath = Path.of(value(args, i++, arg));
+                    break;
+                default:
+                    Preconditions.checkArgument(!arg.startsWith("--"), "Unknown option '%s'.", arg);
+                    Preconditions.checkArgument(options.inputPath == null, "Only one input file path is allowed.");
+                    options.inputPath = Path.of(arg);
+            }
+        }
+        Preconditions.checkArgument(options.inputPath != null, "One argument is required: the input file path.");
+        options.limits = new PackageLimits(options.maxPackageWeight, options.maxPackageProducts,
+            options.maxProductWeight, options.maxProductPrice);
+        Preconditions.checkArgument(options.timeBudget == null
+                || options.strategy == PackageSpecification.FindBestPackageStrategy.BRANCH_AND_BOUND,
+            "The --time-budget option requires the BRANCH_AND_BOUND strategy.");
+        Preconditions.checkArgument(options.epsilon == null
+                || options.strategy == PackageSpecification.FindBestPackageStrategy.APPROXIMATE,
+            "The --epsilon option requires the APPROXIMATE strategy.");
+        Preconditions.checkArgument(options.checkpointPath == null || options.outputPath != null,
+            "The --checkpoint option requires an --output file.");
+        Preconditions.checkArgument(!options.resume || options.checkpointPath != null,
+            "The --resume option requires a --checkpoint file.");
+        Preconditions.checkArgument(!options.watch || options.outputPath != null,
+            "The --watch option requires an --output file.");
+        Preconditions.checkArgument(!options.watch || options.checkpointPath == null,
+            "The --watch option cannot be used with a --checkpoint file.");
+        Preconditions.checkArgument(options.workers == 0 || options.outputPath != null,
+            "The --workers option requires an --output file.");
+        Preconditions.checkArgument(options.workers == 0 || options.range == null,
+            "The --workers option cannot be used with a --range.");
+        Preconditions.checkArgument((options.workers == 0 && options.range == null)
+                || (options.checkpointPath == null && !options.watch),
+            "The --workers and --range options cannot be used with a --checkpoint file or --watch.");
+        Preconditions.checkArgument(options.firstLineIndex == 0 || options.range != null,
+            "The --first-line option requires a --range.");
+        Preconditions.checkArgument(options.traceThreshold == null || options.tracePath != null,
+            "The --trace-threshold option requires a --trace file.");
+        Preconditions.checkArgument(options.tracePath == null || (options.workers == 0 && !options.watch),
+            "The --trace option cannot be used with --workers or --watch.");
+        Preconditions.checkArgument(options.cachePath == null || !options.watch,
+            "The --cache option cannot be used with --watch.");
+        Preconditions.checkArgument(options.cacheSlots >= ResultCache.PROBE_SLOTS,
+            "The option '--cache-slots' requires at least %s slots.", ResultCache.PROBE_SLOTS);
+        Preconditions.checkArgument(options.adaptiveTablePath == null
+                || options.strategy == PackageSpecification.FindBestPackageStrategy.ADAPTIVE,
+            "The --adaptive-table option requires the ADAPTIVE strategy.");
+        Preconditions.checkArgument(options.adaptiveTablePath == null
+                || (options.workers == 0 && options.range == null && !options.watch),
+            "The --adaptive-table option cannot be used with --workers, --range or --watch.");
+        return options;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        Preconditions.checkArgument(index < args.length, "The option '%s' requires a value.", option);
+        return args[index];
+    }
+
+    private static PackageSpecification.FindBestPackageStrategy strategy(String value) {
+        try {
+            return PackageSpecification.FindBestPackageStrategy.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown strategy '" + value + "'.", e);
+        }
+    }
+
+    private static int positiveInt(String value, String option) {
+        try {
+            int intValue = Integer.parseInt(value);
+            Preconditions.checkArgument(intValue > 0, "The option '%s' requires a positive value.", option);
+            return intValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The option '" + option + "' requires an integer value.", e);
+        }
+    }
+
+    private static int nonNegativeInt(String value, String option) {
+        try {
+            int intValue = Integer.parseInt(value);
+            Preconditions.checkArgument(intValue >= 0, "The option '%s' requires a non-negative value.", option);
+            return intValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The option '" + option + "' requires an integer value.", e);
+        }
+    }
+
+    private static double epsilon(String value, String option) {
+        try {
+            double doubleValue = Double.parseDouble(value);
+            Preconditions.checkArgument(doubleValue > 0 && doubleValue < 1, "The option '%s' requires a value between 0 and 1.", option);
+            return doubleValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The option '" + option + "' requires a value between 0 and 1.", e);
+        }
+    }
+
+    private static long[] range(String value, String option) {
+        int separator = value.indexOf('-');
+        try {
+            Preconditions.checkArgument(separator > 0, "The option '%s' requires a value like <start>-<end>.", option);
+            long start = Long.parseLong(value.substring(0, separator));
+            long end = Long.parseLong(value.substring(separator + 1));
+            Preconditions.checkArgument(start >= 0 && start <= end,
+                "The option '%s' requires a start offset not greater than the end offset.", option);
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The option '" + option + "' requires a value like <start>-<end>.", e);
+        }
+    }
+
+    private static long fixedPoint(String value, String option) {
+        try {
+            long fixedPointValue = FixedPoint.parse(value);
+            Preconditions.checkArgument(fixedPointValue >= 0, "The option '%s' requires a non-negative value.", option);
+            return fixedPointValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The option '" + option + "' requires a number with at most "
+                + FixedPoint.DECIMALS + " decimals.", e);
+        }
+    }
+
+    public PackageSpecification.FindBestPackageStrategy getStrategy() {
+        return strategy;
+    }
+
+    public Optional<Duration> getTimeBudget() {
+        return Optional.ofNullable(timeBudget);
+    }
+
+    /**
+     * @return the max relative price loss of the APPROXIMATE strategy
+     */
+    public double getEpsilon() {
+        return epsilon == null ? PackageSpecification.DEFAULT_EPSILON : epsilon;
+    }
+
+    public PackageLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * @return the number of threads updating the long rows of the large instances in parallel or 0 to update them sequentially
+     */
+    public int getLargeInstanceThreads() {
+        return largeInstanceThreads;
+    }
+
+    /**
+     * @return the pool of {@link #getLargeInstanceThreads()} threads, created when first used and shared by all the lines,
+     * or empty to update the rows sequentially
+     */
+    public synchronized Optional<ForkJoinPool> getLargeInstancePool() {
+        if (largeInstanceThreads > 0 && largeInstancePool == null) {
+            largeInstancePool = new ForkJoinPool(largeInstanceThreads);
+        }
+        return Optional.ofNullable(largeInstancePool);
+    }
+
+    public Path getInputPath() {
+        return inputPath;
+    }
+
+    public Optional<Path> getOutputPath() {
+        return Optional.ofNullable(outputPath);
+    }
+
+    public Optional<Path> getCheckpointPath() {
+        return Optional.ofNullable(checkpointPath);
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * @return the number of worker JVMs processing the input file or 0 to process it in this JVM
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return the part of the input file to process or empty to process it all
+     */
+    public Optional<Shard> getShard() {
+        return range == null ? Optional.empty() : Optional.of(new Shard(range[0], range[1], firstLineIndex));
+    }
+
+    public Optional<Path> getTracePath() {
+        return Optional.ofNullable(tracePath);
+    }
+
+    /**
+     * @return the min solve time of the lines whose trace is written
+     */
+    public Duration getTraceThreshold() {
+        return traceThreshold == null ? DEFAULT_TRACE_THRESHOLD : traceThreshold;
+    }
+
+    public Optional<Path> getCachePath() {
+        return Optional.ofNullable(cachePath);
+    }
+
+    /**
+     * @return the number of slots of a new cache file
+     */
+    public int getCacheSlots() {
+        return cacheSlots;
+    }
+
+    /**
+     * @return the file of the strategy table learned by the ADAPTIVE strategy, loaded at start and exported at the end
+     */
+    public Optional<Path> getAdaptiveTablePath() {
+        return Optional.ofNullable(adaptiveTablePath);
+    }
+}
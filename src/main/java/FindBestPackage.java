@@ -1,10 +1,13 @@
-import org.apache.commons.lang3.StringUtils;
-
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.stream.Stream;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
 
 /**
  * The class reads an input text file where each row contains a package specification and
@@ -18,42 +21,257 @@ import java.util.stream.Stream;
  * <li>it prints the resulting package on one line
  * </ul>
  * </ul>
+ * The best packages are found with the <code>--strategy</code> option, {@link PackageSpecification.FindBestPackageStrategy#KNAPSACK} by default.
+ * With the {@link PackageSpecification.FindBestPackageStrategy#BRANCH_AND_BOUND} strategy a <code>--time-budget</code>
+ * can be given for every line: a line whose budget expires gets the best package found so far,
+ * it is reported on the standard error and the number of such lines is reported at the end.
+ * The {@link PackageSpecification.FindBestPackageStrategy#APPROXIMATE} strategy finds packages with a price of at least
+ * <code>(1 - epsilon)</code> times the best price, for an <code>--epsilon</code> of 0.01 by default,
+ * in a time that does not depend on the weights, also for the packages exceeding the default limits.
+ * The default limits of the package specifications can be raised with the <code>--max-*</code> options,
+ * the packages exceeding the default limits are then found with the large instance algorithm,
+ * whose long rows are updated sequentially unless a number of <code>--large-instance-threads</code> is given.
+ * With <code>--watch</code> the output file is kept up to date with the input file, solving again only the changed lines,
+ * see {@link WatchMode}.
+ * Every processing stage of every line is recorded as a JDK Flight Recorder event, see {@link PipelineEvents}.
+ * The results are printed to the standard output or written to an <code>--output</code> file.
+ * For long runs a <code>--checkpoint</code> file can be given that is updated every <code>--checkpoint-interval</code> lines
+ * with the last line fully written to the output, its byte offset in the input file and the output length.
+ * A failed run can then be restarted with <code>--resume</code> which continues from the last checkpoint
+ * and appends to the existing output instead of starting over.
+ * A large input file can be split between several <code>--workers</code> JVMs, see {@link ShardCoordinator},
+ * each of them processing the lines of a byte <code>--range</code> of the file.
+ * With <code>--trace</code> the states explored by the solvers are written into a binary trace file
+ * for the lines slower than the <code>--trace-threshold</code>, see {@link SolverTrace} and {@link SolverTraceReader}.
+ * With <code>--cache</code> the best packages are kept in a file shared by the runs, so the specifications
+ * already solved by a previous run are not solved again, see {@link ResultCache}.
+ * The {@link PackageSpecification.FindBestPackageStrategy#ADAPTIVE} strategy chooses the fastest exact strategy
+ * by the shape of every line, learning from the solve times, see {@link StrategySelector}; the learned table can be kept
+ * in an <code>--adaptive-table</code> file, loaded at start and exported at the end of the run.
  */
 public class FindBestPackage {
+    static final int EXIT_FAILURE = 1;
+    static final int EXIT_INVALID_ARGUMENTS = 2;
+
     /**
-     * Processes the input file line by line.
+     * Processes the input file line by line, the JVM exits with a non-zero status if the processing fails,
+     * so the {@link ShardCoordinator} and the scripts running it can tell a failed run from a complete one.
      *
-     * @param args only one argument: the input file path
+     * @param args the options described by {@link CommandLineOptions} and the input file path
      */
     public static void main(String[] args) {
-        if (args != null && args.length == 1) {
-            try (Stream<String> linesStream = Files.lines(Path.of(args[0]), StandardCharsets.UTF_8)) {
-                io.vavr.collection.Stream.ofAll(linesStream)
-                    .zipWithIndex()
-                    .filter(lineWithNumber -> StringUtils.isNotBlank(lineWithNumber._1()))
-                    .forEach(lineWithNumber -> processLine(lineWithNumber._1(), lineWithNumber._2()));
-            } catch (IOException e) {
-                System.err.println(e.toString());
+        int status = execute(args);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Processes the input file like {@link #main(String[])} but returns the exit status instead of exiting.
+     *
+     * @return 0 on success, {@link #EXIT_FAILURE} if the processing failed
+     * or {@link #EXIT_INVALID_ARGUMENTS} if the arguments are not valid
+     */
+    static int execute(String[] args) {
+        CommandLineOptions options;
+        try {
+            options = CommandLineOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid command arguments. " + e.getMessage() + " " + CommandLineOptions.USAGE);
+            return EXIT_INVALID_ARGUMENTS;
+        }
+        try {
+            if (options.isWatch()) {
+                new WatchMode(options).watch();
+            } else if (options.getWorkers() > 0) {
+                new ShardCoordinator(options).run();
+            } else {
+                run(options);
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println(e.toString());
+            return EXIT_FAILURE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EXIT_FAILURE;
+        }
+    }
+
+    private static void run(CommandLineOptions options) throws IOException {
+        Optional<Path> adaptiveTablePath = options.getAdaptiveTablePath();
+        if (adaptiveTablePath.isPresent() && Files.exists(adaptiveTablePath.get())) {
+            StrategySelector.getDefault().load(adaptiveTablePath.get());
+        }
+        try {
+            processFile(options);
+        } finally {
+            if (adaptiveTablePath.isPresent()) {
+                StrategySelector.getDefault().export(adaptiveTablePath.get());
+            }
+        }
+    }
+
+    private static void processFile(CommandLineOptions options) throws IOException {
+        Optional<Path> checkpointPath = options.getCheckpointPath();
+        Optional<Shard> shard = options.getShard();
+        Checkpoint start = options.isResume() ? Checkpoint.read(checkpointPath.orElseThrow())
+            : shard.map(range -> new Checkpoint(range.getFirstLineIndex(), range.getStartOffset(), 0)).orElse(Checkpoint.START);
+        long endOffset = shard.map(Shard::getEndOffset).orElse(Long.MAX_VALUE);
+        try (SolverTrace trace = options.getTracePath().isPresent()
+                 ? new SolverTrace(options.getTracePath().get(), options.getTraceThreshold()) : null;
+             ResultCache resultCache = options.getCachePath().isPresent()
+                 ? ResultCache.open(options.getCachePath().get(), options.getCacheSlots()) : null;
+             FileChannel inputChannel = FileChannel.open(options.getInputPath(), StandardOpenOption.READ);
+             InputLineReader reader = new InputLineReader(
+                 Channels.newInputStream(inputChannel.position(start.getInputOffset())),
+                 start.getInputOffset(),
+                 start.getLineIndex())) {
+            Optional<Path> outputPath = options.getOutputPath();
+            if (outputPath.isPresent()) {
+                try (FileChannel outputChannel = FileChannel.open(outputPath.get(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    // drop the results written after the checkpoint, they are computed again
+                    outputChannel.truncate(start.getOutputLength()).position(start.getOutputLength());
+                    PrintStream out = new PrintStream(
+                        new BufferedOutputStream(Channels.newOutputStream(outputChannel)), false, StandardCharsets.UTF_8);
+                    processLines(reader, endOffset, out, options, outputChannel, trace, resultCache);
+                    out.flush();
+                    if (out.checkError()) {
+                        throw new IOException("The output file cannot be written: " + outputPath.get());
+                    }
+                }
+            } else {
+                processLines(reader, endOffset, System.out, options, null, trace, resultCache);
             }
-        } else {
-            System.err.println("Invalid command arguments. One argument is required: the input file path.");
         }
     }
 
+    /**
+     * Processes all the remaining lines and writes a checkpoint every configured interval and at the end.
+     *
+     * @param endOffset     the byte offset where the processing stops, it is always at the beginning of a line
+     * @param outputChannel the channel of the output file or null when writing to the standard output
+     * @param trace         the trace of the solver states or null when not tracing
+     * @param resultCache   the cache of the best packages or null when not caching
+     */
+    private static void processLines(InputLineReader reader, long endOffset, PrintStream out, CommandLineOptions options,
+                                     FileChannel outputChannel, SolverTrace trace, ResultCache resultCache) throws IOException {
+        Optional<Path> checkpointPath = options.getCheckpointPath();
+        int linesSinceCheckpoint = 0;
+        int notOptimalLines = 0;
+        String line;
+        while (reader.getOffset() < endOffset && (line = readLine(reader)) != null) {
+            if (!line.isBlank() && !processLine(line, reader.getLineIndex(), options, out, trace, resultCache)) {
+                notOptimalLines++;
+            }
+            if (checkpointPath.isPresent() && ++linesSinceCheckpoint == options.getCheckpointInterval()) {
+                writeCheckpoint(reader, out, outputChannel, checkpointPath.get());
+                linesSinceCheckpoint = 0;
+            }
+        }
+        // a range must be processed until its end, otherwise its part of the output is incomplete
+        if (endOffset != Long.MAX_VALUE && reader.getOffset() < endOffset) {
+            throw new IOException("The input file ended at the offset " + reader.getOffset()
+                + " before the end of the range at " + endOffset + ".");
+        }
+        if (checkpointPath.isPresent()) {
+            writeCheckpoint(reader, out, outputChannel, checkpointPath.get());
+        }
+        if (notOptimalLines > 0) {
+            System.err.println("The time budget expired on " + notOptimalLines + " lines, their packages may not be optimal.");
+        }
+    }
+
+    /**
+     * Reads the next line and records its {@link PipelineEvents.LineRead} event.
+     */
+    private static String readLine(InputLineReader reader) throws IOException {
+        PipelineEvents.LineRead event = new PipelineEvents.LineRead();
+        long offset = reader.getOffset();
+        event.begin();
+        String line = reader.readLine();
+        if (line != null && event.shouldCommit()) {
+            event.lineNumber = reader.getLineIndex();
+            event.bytes = reader.getOffset() - offset;
+            event.commit();
+        }
+        return line;
+    }
+
+    /**
+     * Makes the output durable and only then records it in the checkpoint,
+     * so the checkpoint never refers to results that could still be lost.
+     */
+    private static void writeCheckpoint(InputLineReader reader, PrintStream out, FileChannel outputChannel,
+                                        Path checkpointPath) throws IOException {
+        out.flush();
+        if (out.checkError()) {
+            throw new IOException("The output cannot be written.");
+        }
+        outputChannel.force(false);
+        new Checkpoint(reader.getLineIndex() + 1, reader.getOffset(), outputChannel.position()).write(checkpointPath);
+    }
+
     /**
      * Processes one text line containing the package specifications and prints the best package.
      *
-     * @param line       the package specifications
-     * @param lineNumber the number of the line in the original file
+     * @param line        the package specifications
+     * @param lineNumber  the number of the line in the original file
+     * @param options     the limits of the package specifications, the strategy and the time budget used to find the best package
+     * @param out         the stream where the best package is printed
+     * @param trace       the trace of the solver states or null when not tracing
+     * @param resultCache the cache of the best packages or null when not caching
+     * @return false if the time budget expired and the printed package may not be the best one
      */
-    private static void processLine(String line, int lineNumber) {
+    private static boolean processLine(String line, int lineNumber, CommandLineOptions options, PrintStream out,
+                                       SolverTrace trace, ResultCache resultCache) throws IOException {
+        Optional<Package> bestPackage = findBestPackage(line, lineNumber, options, trace, resultCache);
+        write(new OutputLine(bestPackage), lineNumber, out);
+        if (trace != null) {
+            trace.writeIfSlow(lineNumber);
+        }
+        // the approximate packages are expected not to be optimal
+        if (bestPackage.isPresent() && !bestPackage.get().isOptimal()
+            && options.getStrategy() != PackageSpecification.FindBestPackageStrategy.APPROXIMATE) {
+            System.err.println("Line " + lineNumber + " exceeded the time budget, its package may not be optimal.");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the best package of one text line, the errors of the line are printed on the standard error.
+     *
+     * @return the best package or empty in case the line is not valid
+     */
+    static Optional<Package> findBestPackage(String line, int lineNumber, CommandLineOptions options) {
+        return findBestPackage(line, lineNumber, options, null, null);
+    }
+
+    private static Optional<Package> findBestPackage(String line, int lineNumber, CommandLineOptions options,
+                                                     SolverTrace trace, ResultCache resultCache) {
         try {
-            PackageSpecification packageSpecification = new PackageSpecification(line, lineNumber);
-            packageSpecification.setFindBestPackageStrategy(PackageSpecification.FindBestPackageStrategy.KNAPSACK);
-            System.out.println(new OutputLine(packageSpecification.findBestPackage()));
+            PackageSpecification packageSpecification = new PackageSpecification(line, lineNumber, options.getLimits());
+            packageSpecification.setFindBestPackageStrategy(options.getStrategy());
+            packageSpecification.setTrace(trace);
+            packageSpecification.setResultCache(resultCache);
+            options.getTimeBudget().ifPresent(packageSpecification::setTimeBudget);
+            packageSpecification.setEpsilon(options.getEpsilon());
+            options.getLargeInstancePool().ifPresent(packageSpecification::setLargeInstancePool);
+            return packageSpecification.findBestPackage();
         } catch (PackageSpecificationBaseException e) {
-            System.out.println("-"); //no package could be found because of errors
+            //no package could be found because of errors
             System.err.println("Line " + lineNumber + " cannot be processed because :" + System.lineSeparator() + e.getMessage());
+            return Optional.empty();
         }
     }
+
+    private static void write(Object outputLine, int lineNumber, PrintStream out) {
+        PipelineEvents.Write event = new PipelineEvents.Write();
+        event.begin();
+        out.println(outputLine);
+        event.lineNumber = lineNumber;
+        event.commit();
+    }
 }
@@ -0,0 +1,41 @@
+import com.pmihnea.bestpackage.core.Hundredths;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point representation of the weights and prices as a <code>long</code> number of hundredths,
+ * so all the sums and comparisons are exact (e.g. 53.38 + 30.18 is exactly 8356 hundredths).
+ */
+public final class FixedPoint {
+    public static final int DECIMALS = Hundredths.DECIMALS;
+    public static final long SCALE = 100;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Parses a decimal text having at most 2 decimals directly into hundredths, without going through a double.
+     *
+     * @throws NumberFormatException in case the text is not such a decimal number or it is too big
+     */
+    public static long parse(String text) {
+        if (text == null) {
+            throw new NumberFormatException("Empty decimal number.");
+        }
+        return Hundredths.parse(text, 0, text.length());
+    }
+
+    /**
+     * Converts a decimal value to the nearest number of hundredths.
+     */
+    public static long of(double value) {
+        return Math.round(value * SCALE);
+    }
+
+    /**
+     * @return the shortest decimal text of the value, e.g. "53.38", "15.3" or "45"
+     */
+    public static String toString(long hundredths) {
+        return BigDecimal.valueOf(hundredths, DECIMALS).stripTrailingZeros().toPlainString();
+    }
+}
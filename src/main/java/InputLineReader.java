@@ -0,0 +1,113 @@
+import com.google.common.base.Preconditions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 text lines from an input stream while keeping track of the byte offset and the index of every line.<br>
+ * The lines can be terminated by '\n', '\r' or "\r\n", the same as for {@link java.nio.file.Files#lines}.
+ * The offset after a line always includes its complete terminator, so reading can be resumed exactly from it.
+ */
+public class InputLineReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPosition;
+    private int bufferLimit;
+
+    private byte[] lineBuffer = new byte[256];
+
+    private long offset;
+    private int lineIndex;
+
+    /**
+     * @param in              the input stream positioned at the given offset
+     * @param offset          the byte offset of the stream in the original file
+     * @param firstLineIndex  the index of the first line that will be read
+     */
+    public InputLineReader(InputStream in, long offset, int firstLineIndex) {
+        Preconditions.checkNotNull(in, "The input stream should not be null.");
+        Preconditions.checkArgument(offset >= 0, "The offset should not be negative.");
+        Preconditions.checkArgument(firstLineIndex >= 0, "The first line index should not be negative.");
+        this.in = in;
+        this.offset = offset;
+        this.lineIndex = firstLineIndex - 1;
+    }
+
+    public InputLineReader(InputStream in) {
+        this(in, 0, 0);
+    }
+
+    /**
+     * Reads the next line.
+     *
+     * @return the line without its terminator or null at the end of the stream
+     */
+    public String readLine() throws IOException {
+        int length = 0;
+        boolean endOfLine = false;
+        while (!endOfLine) {
+            if (bufferPosition == bufferLimit && !fillBuffer()) {
+                if (length == 0) {
+                    return null;
+                }
+                break;
+            }
+            byte b = buffer[bufferPosition++];
+            offset++;
+            if (b == '\n') {
+                endOfLine = true;
+            } else if (b == '\r') {
+                endOfLine = true;
+                // consume the '\n' of a "\r\n" terminator, even if it is in the next buffer
+                if ((bufferPosition < bufferLimit || fillBuffer()) && buffer[bufferPosition] == '\n') {
+                    bufferPosition++;
+                    offset++;
+                }
+            } else {
+                if (length == lineBuffer.length) {
+                    lineBuffer = Arrays.copyOf(lineBuffer, length * 2);
+                }
+                lineBuffer[length++] = b;
+            }
+        }
+        lineIndex++;
+        return new String(lineBuffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private boolean fillBuffer() throws IOException {
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        bufferPosition = 0;
+        bufferLimit = read;
+        return true;
+    }
+
+    /**
+     * @return the byte offset just after the last line read, including its terminator
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the index of the last line read, counting from 0 from the beginning of the file
+     */
+    public int getLineIndex() {
+        return lineIndex;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,235 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Knapsack algorithm for packages with many products and big capacities, where a table with a row per product
+ * does not fit in memory, for example 10^4 products and a capacity of 10^6 hundredths.<br>
+ * It keeps a single row indexed by the capacity with the best package of the products processed so far,
+ * and recovers the products of the best package by divide and conquer, like the Hirschberg algorithm:<ul>
+ * <li>the row is computed for the first half of the products and then the second half is added to it,
+ * remembering for every capacity how much of it was left for the first half
+ * <li>this splits the capacity of the best package between the two halves, which are then solved separately
+ * </ul>
+ * The memory is linear in the capacity and the time is about twice the time of computing a single row.<br>
+ * The row is computed in the products order and keeps the package without the current product in case of the same
+ * price and weight, so the best package is the one with the lowest product indexes, the same as for the other algorithms.
+ * The buffers grow with the biggest capacity solved and are then reused.<br>
+ * With a fork-join pool the row update of every product is split into blocks of capacities updated in parallel,
+ * reading the previous row and writing the next one into a second set of buffers.
+ * The rows shorter than {@link #PARALLEL_THRESHOLD} capacities, and all of them with a pool of a single thread,
+ * are updated sequentially in place, as the tasks and the second buffers would cost more than they save.
+ */
+public class LargeInstanceKnapsack {
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    static final int BLOCK_SIZE = 1 << 14;
+
+    private final ForkJoinPool pool;
+
+    // the best package within every capacity and the capacity left in it for the first half of the products
+    private long[] bestPrices = new long[0];
+    private long[] bestWeights = new long[0];
+    private int[] firstHalfCapacities = new int[0];
+    // the next row computed by the parallel updates
+    private long[] nextPrices = new long[0];
+    private long[] nextWeights = new long[0];
+    private int[] nextFirstHalfCapacities = new int[0];
+    private long exploredStates;
+
+    // the products of the current package
+    private long[] weights;
+    private long[] prices;
+    private BitSet selected;
+
+    /**
+     * Creates a knapsack updating the rows sequentially.
+     */
+    public LargeInstanceKnapsack() {
+        this(null);
+    }
+
+    /**
+     * @param pool the pool updating the long rows in parallel or null to update them sequentially
+     */
+    public LargeInstanceKnapsack(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the pool updating the long rows in parallel or null if they are updated sequentially
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Finds the best package: the one with the max total price and in case of the same price the one with the min
+     * total weight, not exceeding the max weight. The remaining ties are resolved by the lowest product indexes.
+     *
+     * @param weights   the product weights in hundredths, only the first <code>count</code> are used
+     * @param prices    the product prices in hundredths, only the first <code>count</code> are used
+     * @param count     the number of products
+     * @param maxWeight the max weight of the package in hundredths
+     * @return the indexes of the products in the best package
+     */
+    public BitSet solve(long[] weights, long[] prices, int count, long maxWeight) {
+        if (maxWeight >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too big max weight: " + maxWeight);
+        }
+        BitSet result = new BitSet(count);
+        exploredStates = 0;
+        if (maxWeight < 0) {
+            return result;
+        }
+        int capacity = (int) maxWeight;
+        if (bestPrices.length <= capacity) {
+            bestPrices = new long[capacity + 1];
+            bestWeights = new long[capacity + 1];
+            firstHalfCapacities = new int[capacity + 1];
+            if (pool != null) {
+                nextPrices = new long[capacity + 1];
+                nextWeights = new long[capacity + 1];
+                nextFirstHalfCapacities = new int[capacity + 1];
+            }
+        }
+        this.weights = weights;
+        this.prices = prices;
+        this.selected = result;
+        solve(0, count, capacity);
+        this.weights = null;
+        this.prices = null;
+        this.selected = null;
+        return result;
+    }
+
+    /**
+     * @return the number of states, packages within a capacity, explored by the last {@link #solve} call
+     */
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    /**
+     * Selects the products of the best package of the products from <code>from</code> until <code>to</code>.
+     */
+    private void solve(int from, int to, int capacity) {
+        if (to - from == 1) {
+            // a product without price is not taken, not even with no weight, as the package without it has a lower index
+            if (weights[from] <= capacity && prices[from] > 0) {
+                selected.set(from);
+            }
+            return;
+        }
+        if (to - from == 0) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        Arrays.fill(bestPrices, 0, capacity + 1, 0);
+        Arrays.fill(bestWeights, 0, capacity + 1, 0);
+        for (int i = from; i < middle; i++) {
+            addProduct(i, capacity, false);
+        }
+        for (int c = 0; c <= capacity; c++) {
+            firstHalfCapacities[c] = c;
+        }
+        for (int i = middle; i < to; i++) {
+            addProduct(i, capacity, true);
+        }
+        int firstHalfCapacity = firstHalfCapacities[capacity];
+        solve(from, middle, firstHalfCapacity);
+        solve(middle, to, capacity - firstHalfCapacity);
+    }
+
+    /**
+     * Adds the product to the row of the best packages.
+     *
+     * @param trackFirstHalf true to update the capacity left for the first half of the products
+     */
+    private void addProduct(int i, int capacity, boolean trackFirstHalf) {
+        long weight = weights[i];
+        long price = prices[i];
+        if (weight > capacity) {
+            return;
+        }
+        exploredStates += capacity - weight + 1;
+        if (pool != null && pool.getParallelism() > 1 && capacity - weight + 1 >= PARALLEL_THRESHOLD) {
+            pool.invoke(new RowUpdate(0, capacity + 1, (int) weight, price, trackFirstHalf));
+            long[] swappedPrices = bestPrices;
+            bestPrices = nextPrices;
+            nextPrices = swappedPrices;
+            long[] swappedWeights = bestWeights;
+            bestWeights = nextWeights;
+            nextWeights = swappedWeights;
+            if (trackFirstHalf) {
+                int[] swappedFirstHalfCapacities = firstHalfCapacities;
+                firstHalfCapacities = nextFirstHalfCapacities;
+                nextFirstHalfCapacities = swappedFirstHalfCapacities;
+            }
+            return;
+        }
+        // go down so every product is added at most once
+        for (int c = capacity; c >= weight; c--) {
+            int without = c - (int) weight;
+            long includingPrice = bestPrices[without] + price;
+            long includingWeight = bestWeights[without] + weight;
+            // on the same price and weight the package without the product is kept, it has the lower indexes
+            if (includingPrice > bestPrices[c] || (includingPrice == bestPrices[c] && includingWeight < bestWeights[c])) {
+                bestPrices[c] = includingPrice;
+                bestWeights[c] = includingWeight;
+                if (trackFirstHalf) {
+                    firstHalfCapacities[c] = firstHalfCapacities[without];
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the capacities from <code>from</code> until <code>to</code> of the next row from the current one,
+     * splitting them into blocks of {@link #BLOCK_SIZE} capacities.
+     */
+    private class RowUpdate extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int weight;
+        private final long price;
+        private final boolean trackFirstHalf;
+
+        RowUpdate(int from, int to, int weight, long price, boolean trackFirstHalf) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.price = price;
+            this.trackFirstHalf = trackFirstHalf;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BLOCK_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowUpdate(from, middle, weight, price, trackFirstHalf),
+                    new RowUpdate(middle, to, weight, price, trackFirstHalf));
+                return;
+            }
+            // the capacities below the weight cannot take the product
+            int start = Math.max(from, Math.min(to, weight));
+            System.arraycopy(bestPrices, from, nextPrices, from, start - from);
+            System.arraycopy(bestWeights, from, nextWeights, from, start - from);
+            if (trackFirstHalf) {
+                System.arraycopy(firstHalfCapacities, from, nextFirstHalfCapacities, from, start - from);
+            }
+            for (int c = start; c < to; c++) {
+                int without = c - weight;
+                long includingPrice = bestPrices[without] + price;
+                long includingWeight = bestWeights[without] + weight;
+                boolean including = includingPrice > bestPrices[c]
+                    || (includingPrice == bestPrices[c] && includingWeight < bestWeights[c]);
+                nextPrices[c] = including ? includingPrice : bestPrices[c];
+                nextWeights[c] = including ? includingWeight : bestWeights[c];
+                if (trackFirstHalf) {
+                    nextFirstHalfCapacities[c] = firstHalfCapacities[including ? without : c];
+                }
+            }
+        }
+    }
+}
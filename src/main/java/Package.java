@@ -1,5 +1,6 @@
 import com.google.common.base.MoreObjects;
 
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.Set;
 
@@ -8,14 +9,20 @@ import java.util.Set;
  */
 public class Package {
     private final Set<Product> products;
+    // false when the search for the best package was stopped before it was proven to be this one
+    private final boolean optimal;
 
     // Best package comparator
     public static final Comparator<Package> BEST_PACKAGE_COMPARATOR =
         // compare first by price
-        Comparator.comparingDouble(Package::getPrice)
+        Comparator.comparingLong(Package::getPrice)
             .thenComparing(
                 // and in case of equality compare by weight in reverse order
-                Comparator.comparingDouble(Package::getWeight).reversed()
+                Comparator.comparingLong(Package::getWeight).reversed()
+            )
+            .thenComparing(
+                // and in case of equality too prefer the lower product numbers, so the best package is always the same one
+                Comparator.comparing(Package::getProductNumbers, BitSetComparator.INSTANCE).reversed()
             );
 
     public Set<Product> getProducts() {
@@ -23,27 +30,47 @@ public class Package {
     }
 
     public Package(Set<Product> products) {
+        this(products, true);
+    }
+
+    public Package(Set<Product> products, boolean optimal) {
         this.products = products;
+        this.optimal = optimal;
     }
 
-    public double getPrice() {
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * @return the total price in hundredths
+     */
+    public long getPrice() {
         return products.stream()
-            .mapToDouble(Product::getPrice)
-            .reduce(Double::sum)
-            .orElse(0.0);
+            .mapToLong(Product::getPrice)
+            .sum();
     }
 
-    public double getWeight() {
+    /**
+     * @return the total weight in hundredths
+     */
+    public long getWeight() {
         return products.stream()
-            .mapToDouble(Product::getWeight)
-            .reduce(Double::sum)
-            .orElse(0.0);
+            .mapToLong(Product::getWeight)
+            .sum();
+    }
+
+    private BitSet getProductNumbers() {
+        BitSet numbers = new BitSet();
+        products.forEach(product -> numbers.set(product.getNumber()));
+        return numbers;
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
             .add("products", products)
+            .add("optimal", optimal)
             .toString();
     }
 }
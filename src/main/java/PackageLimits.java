@@ -0,0 +1,65 @@
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * The constraints checked when validating a package specification, the weights and prices are in hundredths.<br>
+ * The {@link #DEFAULT} limits are the ones of the requirements, bigger ones can be configured for large packages
+ * which are then solved with the {@link LargeInstanceKnapsack}.
+ */
+public class PackageLimits {
+    public static final PackageLimits DEFAULT = new PackageLimits(
+        PackageSpecification.MAX_PACKAGE_WEIGHT,
+        PackageSpecification.MAX_PACKAGE_PRODUCTS,
+        PackageSpecification.MAX_PRODUCT_WEIGHT,
+        PackageSpecification.MAX_PRODUCT_PRICE);
+
+    private final long maxPackageWeight;
+    private final int maxPackageProducts;
+    private final long maxProductWeight;
+    private final long maxProductPrice;
+
+    /**
+     * @param maxPackageWeight   the max weight of a package in hundredths
+     * @param maxPackageProducts the max number of products of a package, which is also the max product number
+     * @param maxProductWeight   the max weight of a product in hundredths
+     * @param maxProductPrice    the max price of a product in hundredths
+     */
+    public PackageLimits(long maxPackageWeight, int maxPackageProducts, long maxProductWeight, long maxProductPrice) {
+        // the capacities are indexes of the knapsack rows
+        Preconditions.checkArgument(maxPackageWeight >= 0 && maxPackageWeight < Integer.MAX_VALUE,
+            "The max package weight should be between 0 and %s.", FixedPoint.toString(Integer.MAX_VALUE - 1));
+        Preconditions.checkArgument(maxPackageProducts >= 0, "The max package products should not be negative.");
+        Preconditions.checkArgument(maxProductWeight >= 0, "The max product weight should not be negative.");
+        Preconditions.checkArgument(maxProductPrice >= 0, "The max product price should not be negative.");
+        this.maxPackageWeight = maxPackageWeight;
+        this.maxPackageProducts = maxPackageProducts;
+        this.maxProductWeight = maxProductWeight;
+        this.maxProductPrice = maxProductPrice;
+    }
+
+    public long getMaxPackageWeight() {
+        return maxPackageWeight;
+    }
+
+    public int getMaxPackageProducts() {
+        return maxPackageProducts;
+    }
+
+    public long getMaxProductWeight() {
+        return maxProductWeight;
+    }
+
+    public long getMaxProductPrice() {
+        return maxProductPrice;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("maxPackageWeight", FixedPoint.toString(maxPackageWeight))
+            .add("maxPackageProducts", maxPackageProducts)
+            .add("maxProductWeight", FixedPoint.toString(maxProductWeight))
+            .add("maxProductPrice", FixedPoint.toString(maxProductPrice))
+            .toString();
+    }
+}
@@ -0,0 +1,309 @@
+import com.google.common.base.Preconditions;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+/**
+ * Library entry point finding the best packages of a stream of lines with back pressure,
+ * to be plugged into reactive pipelines:
+ * <pre>
+ * PackageProcessor processor = new PackageProcessor(executor, 4, 64);
+ * lines.subscribe(processor);
+ * processor.subscribe(resultSubscriber);
+ * </pre>
+ * It subscribes to a publisher of input lines and publishes one {@link PackageResult} for every non-blank line,
+ * in the input order:<ul>
+ * <li>the lines are solved on the executor, at most <code>parallelism</code> of them at the same time
+ * <li>at most <code>maxInFlight</code> lines are requested from the publisher and not yet delivered to the subscriber,
+ * so a slow subscriber slows down the publisher instead of filling the memory
+ * <li>an invalid line is published as a result with its errors, only an unexpected exception ends the stream with an error
+ * </ul>
+ * The processor can be subscribed to once, by one subscriber.
+ */
+public class PackageProcessor implements Flow.Processor<String, PackageResult> {
+    private final Executor executor;
+    private final int parallelism;
+    private final int maxInFlight;
+
+    private PackageSpecification.FindBestPackageStrategy strategy = PackageSpecification.FindBestPackageStrategy.KNAPSACK;
+    private PackageLimits limits = PackageLimits.DEFAULT;
+    private Duration timeBudget;
+    private double epsilon = PackageSpecification.DEFAULT_EPSILON;
+
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super PackageResult> downstream;
+
+    // the requested lines in the input order, solved or not, and the ones waiting for a free solver
+    private final Queue<Line> lines = new ArrayDeque<>();
+    private final Queue<Line> waitingLines = new ArrayDeque<>();
+    private int runningLines;
+    private int nextLineNumber;
+    private long requested;
+    private boolean upstreamCompleted;
+    private Throwable failure;
+    private boolean terminated;
+    private boolean cancelled;
+
+    // a single thread delivers to the subscriber at a time, the others leave their deliveries to it
+    private boolean delivering;
+
+    /**
+     * @param executor    the executor solving the lines
+     * @param parallelism the max number of lines solved at the same time
+     * @param maxInFlight the max number of lines requested and not yet delivered
+     */
+    public PackageProcessor(Executor executor, int parallelism, int maxInFlight) {
+        Preconditions.checkNotNull(executor, "The executor should not be null.");
+        Preconditions.checkArgument(parallelism > 0, "The parallelism should be positive.");
+        Preconditions.checkArgument(maxInFlight >= parallelism, "The max in-flight lines should not be lower than the parallelism.");
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public void setFindBestPackageStrategy(PackageSpecification.FindBestPackageStrategy strategy) {
+        this.strategy = Preconditions.checkNotNull(strategy);
+    }
+
+    public void setLimits(PackageLimits limits) {
+        this.limits = Preconditions.checkNotNull(limits);
+    }
+
+    /**
+     * @see PackageSpecification#setTimeBudget(Duration)
+     */
+    public void setTimeBudget(Duration timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * @see PackageSpecification#setEpsilon(double)
+     */
+    public void setEpsilon(double epsilon) {
+        Preconditions.checkArgument(epsilon > 0 && epsilon < 1, "The epsilon should be between 0 and 1: %s", epsilon);
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super PackageResult> subscriber) {
+        Preconditions.checkNotNull(subscriber, "The subscriber should not be null.");
+        boolean subscribed;
+        synchronized (this) {
+            subscribed = downstream != null;
+            if (!subscribed) {
+                downstream = subscriber;
+            }
+        }
+        if (subscribed) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("The processor already has a subscriber."));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                synchronized (PackageProcessor.this) {
+                    if (n <= 0) {
+                        fail(new IllegalArgumentException("The number of requested results should be positive."));
+                    } else {
+                        requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+                    }
+                }
+                deliver();
+            }
+
+            @Override
+            public void cancel() {
+                Flow.Subscription subscription;
+                synchronized (PackageProcessor.this) {
+                    cancelled = true;
+                    lines.clear();
+                    waitingLines.clear();
+                    subscription = upstream;
+                }
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+            }
+        });
+        deliver();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            if (upstream != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+        }
+        subscription.request(maxInFlight);
+    }
+
+    @Override
+    public void onNext(String text) {
+        Line line;
+        synchronized (this) {
+            if (cancelled || terminated) {
+                return;
+            }
+            int lineNumber = nextLineNumber++;
+            if (text.isBlank()) {
+                line = null;
+            } else {
+                line = new Line(lineNumber, text);
+                lines.add(line);
+                waitingLines.add(line);
+            }
+        }
+        if (line == null) {
+            // a blank line has no result, it frees its place at once
+            upstream.request(1);
+        } else {
+            solveWaitingLines();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        synchronized (this) {
+            fail(throwable);
+        }
+        deliver();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            upstreamCompleted = true;
+        }
+        deliver();
+    }
+
+    private void fail(Throwable throwable) {
+        if (failure == null) {
+            failure = throwable;
+        }
+    }
+
+    private void solveWaitingLines() {
+        while (true) {
+            Line line;
+            synchronized (this) {
+                if (runningLines == parallelism || waitingLines.isEmpty()) {
+                    return;
+                }
+                line = waitingLines.poll();
+                runningLines++;
+            }
+            executor.execute(() -> {
+                try {
+                    PackageResult result = solve(line);
+                    synchronized (this) {
+                        line.result = result;
+                    }
+                } catch (RuntimeException | Error e) {
+                    synchronized (this) {
+                        fail(e);
+                    }
+                } finally {
+                    synchronized (this) {
+                        runningLines--;
+                    }
+                }
+                solveWaitingLines();
+                deliver();
+            });
+        }
+    }
+
+    private PackageResult solve(Line line) {
+        try {
+            PackageSpecification packageSpecification = new PackageSpecification(line.text, line.number, limits);
+            packageSpecification.setFindBestPackageStrategy(strategy);
+            packageSpecification.setTimeBudget(timeBudget);
+            packageSpecification.setEpsilon(epsilon);
+            Optional<Package> bestPackage = packageSpecification.findBestPackage();
+            return PackageResult.of(line.number, bestPackage);
+        } catch (PackageSpecificationBaseException e) {
+            return PackageResult.error(line.number, e.getMessage());
+        }
+    }
+
+    /**
+     * Delivers the solved lines at the head of the queue while the subscriber requests them, and then the end of the stream.
+     */
+    private void deliver() {
+        synchronized (this) {
+            if (delivering) {
+                return;
+            }
+            delivering = true;
+        }
+        while (true) {
+            PackageResult result = null;
+            Throwable error = null;
+            boolean complete = false;
+            Flow.Subscription subscription;
+            boolean cancelUpstream;
+            synchronized (this) {
+                subscription = upstream;
+                cancelUpstream = subscription != null && !upstreamCompleted;
+                if (downstream == null || cancelled || terminated) {
+                    delivering = false;
+                    return;
+                }
+                if (failure != null) {
+                    error = failure;
+                    terminated = true;
+                } else if (requested > 0 && !lines.isEmpty() && lines.peek().result != null) {
+                    result = lines.poll().result;
+                    requested--;
+                } else if (upstreamCompleted && lines.isEmpty()) {
+                    complete = true;
+                    terminated = true;
+                } else {
+                    // the threads changing the state after this point deliver by themselves
+                    delivering = false;
+                    return;
+                }
+            }
+            if (result != null) {
+                downstream.onNext(result);
+                subscription.request(1);
+            } else if (error != null) {
+                if (cancelUpstream) {
+                    subscription.cancel();
+                }
+                downstream.onError(error);
+            } else if (complete) {
+                downstream.onComplete();
+            }
+        }
+    }
+
+    private static class Line {
+        private final int number;
+        private final String text;
+        // set once solved, guarded by the processor
+        private PackageResult result;
+
+        Line(int number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+}
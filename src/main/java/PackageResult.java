@@ -0,0 +1,65 @@
+import com.google.common.base.MoreObjects;
+
+import java.util.Optional;
+
+/**
+ * The result of one input line published by {@link PackageProcessor}:
+ * the best package of a valid line, or the errors of an invalid one.
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public class PackageResult {
+    private final int lineNumber;
+    private final Optional<Package> bestPackage;
+    private final String error;
+
+    private PackageResult(int lineNumber, Optional<Package> bestPackage, String error) {
+        this.lineNumber = lineNumber;
+        this.bestPackage = bestPackage;
+        this.error = error;
+    }
+
+    static PackageResult of(int lineNumber, Optional<Package> bestPackage) {
+        return new PackageResult(lineNumber, bestPackage, null);
+    }
+
+    static PackageResult error(int lineNumber, String error) {
+        return new PackageResult(lineNumber, Optional.empty(), error);
+    }
+
+    /**
+     * @return the index of the line in the input, counting from 0 and including the blank lines that have no result
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return the best package or empty in case the line is not valid
+     */
+    public Optional<Package> getBestPackage() {
+        return bestPackage;
+    }
+
+    /**
+     * @return the errors of the line or empty in case it is valid
+     */
+    public Optional<String> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    /**
+     * @return the output line, the same as printed by {@link FindBestPackage}
+     */
+    public String toOutputLine() {
+        return new OutputLine(bestPackage).toString();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("lineNumber", lineNumber)
+            .add("bestPackage", bestPackage)
+            .add("error", error)
+            .toString();
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Algorithm finding the best package of products given as primitive arrays.<br>
+ * The implementations own preallocated scratch buffers sized for the limits they are created with,
+ * so they can be reused for many packages without allocating, but they are not thread safe:
+ * each thread uses its own instances through its {@link SolverWorkspace}.
+ */
+public interface PackageSolver {
+    /**
+     * Finds the best package: the one with the max total price and in case of the same price the one with the min
+     * total weight, not exceeding the max weight. The remaining ties are resolved by the lowest mask.
+     *
+     * @param weights   the product weights in hundredths, only the first <code>count</code> are used
+     * @param prices    the product prices in hundredths, only the first <code>count</code> are used
+     * @param count     the number of products
+     * @param maxWeight the max weight of the package in hundredths
+     * @return the bit mask of the indexes of the products in the best package
+     */
+    long solve(long[] weights, long[] prices, int count, long maxWeight);
+
+    /**
+     * @return the number of states, partial or complete packages, explored by the last {@link #solve} call
+     */
+    long getExploredStates();
+
+    /**
+     * Sets the trace recording the states explored by the next {@link #solve} calls, or null to stop recording.
+     * The solvers that cannot record their states ignore it.
+     */
+    default void setTrace(SolverTrace trace) {
+    }
+}
@@ -1,15 +1,16 @@
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Sets;
-import io.vavr.control.Try;
+import com.pmihnea.bestpackage.core.Hash128;
+import com.pmihnea.bestpackage.core.LineFormatException;
+import com.pmihnea.bestpackage.core.LineParser;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.BitSet;
+import java.util.HashSet;
 import java.util.Optional;
-import java.util.Scanner;
 import java.util.Set;
-import java.util.function.Supplier;
-import java.util.regex.Pattern;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.stream.LongStream;
 
 /**
  * Encapsulates an input line containing a package specification composed of:<ul>
@@ -19,45 +20,48 @@ import java.util.stream.Stream;
  * and the function that finds the best package.
  */
 public class PackageSpecification {
-    /**
-     * Line structure and delimiter patters for such expression:<br>
-     * <code>81 : (1,53.38,€45) (2,88.62,€98)</code>
-     */
-    private static final Pattern DELIMITER_PATTERN = Pattern.compile("[ :(),€]+");
-    // private static final Pattern LINE_STRUCTURE_PATTERN = Pattern.compile("^(\\d+(\\.\\d+)?) +:( +\\(\\d+,\\d+(\\.\\d+)?,€\\d+(\\.\\d+)?\\))+$");
-    // Use a relaxed pattern that only checks the structure of the line given by the delimiters but not the values themselves
-    // that are checked later to be able to give a precise error on them.
-    // The regular expression check only gives a yes/no match response.
-    private static final Pattern LINE_STRUCTURE_PATTERN_RELAXED =
-        Pattern.compile("^([^ :(),€]+) +:( +\\(([^ :(),€]+),([^ :(),€]+),€([^ :(),€]+)\\))+$");
-
+    // the lines are parsed by the JDK-only parser of the current thread, reused for every line
+    private static final ThreadLocal<LineParser> LINE_PARSER = ThreadLocal.withInitial(LineParser::new);
 
     // token names
-    static final String LINE_STRUCTURE = "line structure";
-    static final String MAX_WEIGHT = "max weight";
+    static final String LINE_STRUCTURE = LineParser.LINE_STRUCTURE;
+    static final String MAX_WEIGHT = LineParser.MAX_WEIGHT;
     static final String MAX_PRODUCTS = "max products";
-    static final String PRODUCT_NUMBER = "product number";
-    static final String PRODUCT_WEIGHT = "product weight";
-    static final String PRODUCT_PRICE = "product price";
+    static final String PRODUCT_NUMBER = LineParser.PRODUCT_NUMBER;
+    static final String PRODUCT_WEIGHT = LineParser.PRODUCT_WEIGHT;
+    static final String PRODUCT_PRICE = LineParser.PRODUCT_PRICE;
+
+    // default constraints, the weights and prices are in hundredths, see PackageLimits
+    static final long MAX_PACKAGE_WEIGHT = 100 * FixedPoint.SCALE;
+    static final int MAX_PACKAGE_PRODUCTS = 15;
+    static final long MAX_PRODUCT_WEIGHT = 100 * FixedPoint.SCALE;
+    static final long MAX_PRODUCT_PRICE = 100 * FixedPoint.SCALE;
 
     // line identification
     private final int lineNumber;
+    private final PackageLimits limits;
 
-    // package specification fields
-    private double maxWeight;
+    // package specification fields, the max weight is in hundredths
+    private long maxWeight;
     private Set<Product> products;
 
     // constructor used for testing
     PackageSpecification(double maxWeight, Set<Product> products) throws PackageSpecificationValidationException {
-        this.maxWeight = maxWeight;
+        this(maxWeight, products, PackageLimits.DEFAULT);
+    }
+
+    // constructor used for testing
+    PackageSpecification(double maxWeight, Set<Product> products, PackageLimits limits) throws PackageSpecificationValidationException {
+        this.maxWeight = FixedPoint.of(maxWeight);
         this.products = products;
         this.lineNumber = 1;
+        this.limits = limits;
         validateTokens();
     }
 
     // constructor used for testing
     PackageSpecification(double maxWeight, Product... products) throws PackageSpecificationValidationException {
-        this(maxWeight, Sets.newHashSet(products));
+        this(maxWeight, new HashSet<>(Arrays.asList(products)));
     }
 
     /**
@@ -68,8 +72,29 @@ public class PackageSpecification {
      * @throws PackageSpecificationBaseException in case a valid package specification cannot be constructed
      */
     public PackageSpecification(String stringLine, int lineNumber) throws PackageSpecificationBaseException {
+        this(stringLine, lineNumber, PackageLimits.DEFAULT);
+    }
+
+    /**
+     * Constructs a valid package specification within the given limits
+     *
+     * @param stringLine input text line
+     * @param lineNumber input line number
+     * @param limits     the constraints checked by the validation
+     * @throws PackageSpecificationBaseException in case a valid package specification cannot be constructed
+     */
+    public PackageSpecification(String stringLine, int lineNumber, PackageLimits limits) throws PackageSpecificationBaseException {
         this.lineNumber = lineNumber;
-        readTokens(stringLine);
+        this.limits = limits;
+        PipelineEvents.Parse parseEvent = new PipelineEvents.Parse();
+        parseEvent.begin();
+        try {
+            readTokens(stringLine);
+            parseEvent.valid = true;
+        } finally {
+            parseEvent.lineNumber = lineNumber;
+            parseEvent.commit();
+        }
         validateTokens();
     }
 
@@ -80,24 +105,16 @@ public class PackageSpecification {
      * @throws PackageSpecificationParsingException in case the tokens are not parsed correctly
      */
     private void readTokens(String stringLine) throws PackageSpecificationParsingException {
-
-        // check first the line structure
-        if (!LINE_STRUCTURE_PATTERN_RELAXED.matcher(stringLine).matches()) {
-            throw new PackageSpecificationParsingException(
-                lineNumber,
-                LINE_STRUCTURE,
-                stringLine);
-        }
-        // use a scanner to split the line in valuable tokens ignoring the delimiters that were check upfront
-        try (Scanner scanner = new Scanner(stringLine).useDelimiter(DELIMITER_PATTERN)) {
-            this.maxWeight = getTokenValueOrElseThrow(scanner::nextDouble, MAX_WEIGHT, scanner);
-            this.products = Sets.newHashSet();
-            while (scanner.hasNext()) {
-                int productNumber = getTokenValueOrElseThrow(scanner::nextInt, PRODUCT_NUMBER, scanner);
-                double productWeight = getTokenValueOrElseThrow(scanner::nextDouble, PRODUCT_WEIGHT, scanner);
-                double productPrice = getTokenValueOrElseThrow(scanner::nextDouble, PRODUCT_PRICE, scanner);
-                products.add(new Product(productNumber, productWeight, productPrice));
-            }
+        LineParser parser = LINE_PARSER.get();
+        try {
+            parser.parse(stringLine);
+        } catch (LineFormatException e) {
+            throw new PackageSpecificationParsingException(lineNumber, e.getTokenName(), e.getToken());
+        }
+        this.maxWeight = parser.getMaxWeight();
+        this.products = new HashSet<>();
+        for (int i = 0; i < parser.getCount(); i++) {
+            products.add(new Product(parser.getNumber(i), parser.getWeight(i), parser.getPrice(i)));
         }
     }
 
@@ -107,52 +124,57 @@ public class PackageSpecification {
      * @throws PackageSpecificationValidationException in case one or more constraints are not met
      */
     private void validateTokens() throws PackageSpecificationValidationException {
-        // validate the global constraints
-        Stream<String> globalErrors = validateGlobalConstraints();
-
-        // validate all products constraints
-        Stream<String> productsErrors = getProducts().stream()
-            .flatMap(this::validateProductConstraints);
-
-        // create a single error message
-        String errors = Stream.concat(globalErrors, productsErrors).collect(Collectors.joining(System.lineSeparator()));
-        if (!errors.isEmpty()) {
-            throw new PackageSpecificationValidationException(errors, lineNumber);
+        PipelineEvents.Validate validateEvent = new PipelineEvents.Validate();
+        validateEvent.begin();
+        try {
+            validateConstraints();
+            validateEvent.valid = true;
+        } finally {
+            validateEvent.lineNumber = lineNumber;
+            validateEvent.commit();
         }
     }
 
-    private Stream<String> validateGlobalConstraints() {
-        return ImmutableList.of(
-            validateToken(getMaxWeight() <= 100.0, MAX_WEIGHT, getMaxWeight()),
-            validateToken(getProducts().size() <= 15, MAX_PRODUCTS, getProducts().size())
-        ).stream().filter(Optional::isPresent).map(Optional::get);
-    }
-
-    private Stream<String> validateProductConstraints(Product product) {
-        return ImmutableList.of(
-            validateToken(product.getNumber() <= 15, PRODUCT_NUMBER, product.getNumber()),
-            validateToken(product.getWeight() <= 100.0, PRODUCT_WEIGHT, product.getWeight()),
-            validateToken(product.getPrice() <= 100.0, PRODUCT_PRICE, product.getPrice())
-        ).stream().filter(Optional::isPresent).map(Optional::get);
+    private void validateConstraints() throws PackageSpecificationValidationException {
+        // validate the global constraints and then all products constraints into a single error message
+        StringBuilder errors = new StringBuilder();
+        validateToken(errors, getMaxWeight() >= 0 && getMaxWeight() <= limits.getMaxPackageWeight(), MAX_WEIGHT, getMaxWeight());
+        if (getProducts().size() > limits.getMaxPackageProducts()) {
+            appendError(errors, MAX_PRODUCTS, String.valueOf(getProducts().size()));
+        }
+        for (Product product : getProducts()) {
+            if (product.getNumber() < 1 || product.getNumber() > limits.getMaxPackageProducts()) {
+                appendError(errors, PRODUCT_NUMBER, String.valueOf(product.getNumber()));
+            }
+            validateToken(errors, product.getWeight() >= 0 && product.getWeight() <= limits.getMaxProductWeight(), PRODUCT_WEIGHT, product.getWeight());
+            validateToken(errors, product.getPrice() >= 0 && product.getPrice() <= limits.getMaxProductPrice(), PRODUCT_PRICE, product.getPrice());
+        }
+        if (errors.length() > 0) {
+            throw new PackageSpecificationValidationException(errors.toString(), lineNumber);
+        }
     }
 
-    private Optional<String> validateToken(boolean expression, String tokenName, Object tokenValue) {
+    /**
+     * Appends the error of a value in hundredths, formatted only when it is invalid.
+     */
+    private void validateToken(StringBuilder errors, boolean expression, String tokenName, long hundredths) {
         if (!expression) {
-            return Optional.of("On line " + this.lineNumber + " the '" + tokenName + "' has an invalid value = '" + tokenValue + "'.");
-        } else {
-            return Optional.empty();
+            appendError(errors, tokenName, FixedPoint.toString(hundredths));
         }
     }
 
-    private <T> T getTokenValueOrElseThrow(Supplier<T> supplier, String tokenName, Scanner scanner) {
-        return Try.ofSupplier(supplier).getOrElseThrow(
-            () -> new PackageSpecificationParsingException(
-                lineNumber,
-                tokenName,
-                scanner.hasNext() ? scanner.next() : "<EOL>"));
+    private void appendError(StringBuilder errors, String tokenName, String tokenValue) {
+        if (errors.length() > 0) {
+            errors.append(System.lineSeparator());
+        }
+        errors.append("On line ").append(lineNumber).append(" the '").append(tokenName)
+            .append("' has an invalid value = '").append(tokenValue).append("'.");
     }
 
-    double getMaxWeight() {
+    /**
+     * @return the max weight in hundredths
+     */
+    long getMaxWeight() {
         return maxWeight;
     }
 
@@ -160,11 +182,22 @@ public class PackageSpecification {
         return products;
     }
 
+    /**
+     * @return the products ordered by number, so the indexes used by the algorithms,
+     * and then the package chosen among the ones with the same price and weight, do not depend on the set order
+     */
+    private Product[] getProductsArray() {
+        return products.stream()
+            .sorted(SolverWorkspace.PRODUCT_ORDER)
+            .toArray(Product[]::new);
+    }
+
     public enum FindBestPackageStrategy {
-        OPTIMIZED, BRUTE_FORCE, KNAPSACK
+        OPTIMIZED, BRUTE_FORCE, KNAPSACK, VECTORIZED, DP_BY_PRICE, BRANCH_AND_BOUND, BOUNDED_KNAPSACK, LARGE_INSTANCE, PARETO, APPROXIMATE, ADAPTIVE
     }
 
     private FindBestPackageStrategy findBestPackageStrategy = FindBestPackageStrategy.OPTIMIZED;
+    private long exploredStates;
 
     public FindBestPackageStrategy getFindBestPackageStrategy() {
         return findBestPackageStrategy;
@@ -174,21 +207,211 @@ public class PackageSpecification {
         this.findBestPackageStrategy = findBestPackageStrategy;
     }
 
+    // the time budget for finding the best package, used only by the BRANCH_AND_BOUND strategy
+    private Duration timeBudget;
+
+    public Optional<Duration> getTimeBudget() {
+        return Optional.ofNullable(timeBudget);
+    }
+
+    /**
+     * Limits the time of {@link #findBestPackage()} for the {@link FindBestPackageStrategy#BRANCH_AND_BOUND} strategy:
+     * when it expires the best package found so far is returned, flagged as not {@link Package#isOptimal()}.
+     */
+    public void setTimeBudget(Duration timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    static final double DEFAULT_EPSILON = 0.01;
+
+    // the max relative price loss of the package, used only by the APPROXIMATE strategy
+    private double epsilon = DEFAULT_EPSILON;
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    /**
+     * Sets the max relative price loss for the {@link FindBestPackageStrategy#APPROXIMATE} strategy:
+     * the package found has a price of at least <code>(1 - epsilon)</code> times the price of the best package,
+     * flagged as not {@link Package#isOptimal()}.
+     */
+    public void setEpsilon(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("The epsilon should be between 0 and 1: " + epsilon);
+        }
+        this.epsilon = epsilon;
+    }
+
+    private SolverTrace trace;
+    private ResultCache resultCache;
+    private StrategySelector strategySelector;
+    private ForkJoinPool largeInstancePool;
+
+    /**
+     * Records the states explored by {@link #findBestPackage()} into the trace, see {@link SolverTrace}.
+     */
+    public void setTrace(SolverTrace trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Looks up the best package in the cache before finding it, and stores it there after, see {@link ResultCache}.
+     * Only the packages within the default limits are cached.
+     */
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Chooses the strategy of the {@link FindBestPackageStrategy#ADAPTIVE} strategy and learns from its solve time,
+     * see {@link StrategySelector}. Without a selector the {@link StrategySelector#getDefault() default} one is used.
+     */
+    public void setStrategySelector(StrategySelector strategySelector) {
+        this.strategySelector = strategySelector;
+    }
+
+    /**
+     * Updates the long rows of the {@link FindBestPackageStrategy#LARGE_INSTANCE} strategy in parallel in the given pool,
+     * see {@link LargeInstanceKnapsack}. Without a pool they are updated sequentially.
+     */
+    public void setLargeInstancePool(ForkJoinPool largeInstancePool) {
+        this.largeInstancePool = largeInstancePool;
+    }
+
     /**
      * Finds the best package based on the valid package specification.
+     * The packages exceeding the default limits, see {@link PackageLimits#DEFAULT}, are always found
+     * with the {@link FindBestPackageStrategy#LARGE_INSTANCE} strategy as the others are sized for the default limits,
+     * except with the {@link FindBestPackageStrategy#APPROXIMATE} strategy which is meant for them.
      *
      * @return Optional.of(best package) or Optional.empty in case none is found
      */
     public Optional<Package> findBestPackage() {
-        switch (getFindBestPackageStrategy()) {
+        if (resultCache == null || isLargeInstance()) {
+            return solve();
+        }
+        // the key and the mask use the same product order as the solvers, so the cached package is the same one
+        Product[] productsArray = getProductsArray();
+        Hash128 key = new Hash128()
+            .putLong(getMaxWeight())
+            .putLong(productsArray.length);
+        for (Product product : productsArray) {
+            key.putLong(product.getNumber()).putLong(product.getWeight()).putLong(product.getPrice());
+        }
+        long cachedMask = resultCache.get(key.getHigh(), key.getLow());
+        if (cachedMask >= 0) {
+            exploredStates = 0;
+            Set<Product> selected = new HashSet<>();
+            for (int i = 0; i < productsArray.length; i++) {
+                if ((cachedMask & (1L << i)) != 0) {
+                    selected.add(productsArray[i]);
+                }
+            }
+            return Optional.of(new Package(selected));
+        }
+        Optional<Package> bestPackage = solve();
+        if (bestPackage.isPresent() && bestPackage.get().isOptimal()) {
+            long mask = 0;
+            for (int i = 0; i < productsArray.length; i++) {
+                if (bestPackage.get().getProducts().contains(productsArray[i])) {
+                    mask |= 1L << i;
+                }
+            }
+            resultCache.put(key.getHigh(), key.getLow(), mask);
+        }
+        return bestPackage;
+    }
+
+    private Optional<Package> solve() {
+        long startTS = System.nanoTime();
+        PipelineEvents.Solve solveEvent = new PipelineEvents.Solve();
+        solveEvent.begin();
+        FindBestPackageStrategy strategy = isLargeInstance() && getFindBestPackageStrategy() != FindBestPackageStrategy.APPROXIMATE
+            ? FindBestPackageStrategy.LARGE_INSTANCE : getFindBestPackageStrategy();
+        StrategySelector selector = null;
+        int bucket = 0;
+        if (strategy == FindBestPackageStrategy.ADAPTIVE) {
+            selector = strategySelector != null ? strategySelector : StrategySelector.getDefault();
+            bucket = bucket();
+            strategy = selector.select(bucket);
+        }
+        exploredStates = 0;
+        if (trace != null) {
+            trace.begin(strategy);
+        }
+        Optional<Package> bestPackage = findBestPackage(strategy, startTS);
+        if (selector != null) {
+            selector.record(bucket, strategy, System.nanoTime() - startTS);
+        }
+        if (trace != null) {
+            trace.end();
+        }
+        solveEvent.end();
+        if (solveEvent.shouldCommit()) {
+            solveEvent.lineNumber = lineNumber;
+            solveEvent.strategy = strategy.name();
+            solveEvent.products = products.size();
+            solveEvent.exploredStates = exploredStates;
+            solveEvent.optimal = bestPackage.map(Package::isOptimal).orElse(true);
+            solveEvent.commit();
+        }
+        return bestPackage;
+    }
+
+    /**
+     * @return the number of states, partial or complete packages, explored by the last {@link #findBestPackage()} call
+     */
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    /**
+     * @return the {@link StrategySelector} bucket of the shape of the package specification
+     */
+    private int bucket() {
+        long totalWeight = 0;
+        long minWeight = Long.MAX_VALUE;
+        long maxWeightOfProduct = 0;
+        for (Product product : products) {
+            totalWeight += product.getWeight();
+            minWeight = Math.min(minWeight, product.getWeight());
+            maxWeightOfProduct = Math.max(maxWeightOfProduct, product.getWeight());
+        }
+        return StrategySelector.bucket(products.size(), maxWeight, totalWeight, minWeight, maxWeightOfProduct);
+    }
+
+    private boolean isLargeInstance() {
+        return products.size() > MAX_PACKAGE_PRODUCTS || maxWeight > MAX_PACKAGE_WEIGHT;
+    }
+
+    /**
+     * @param startTS the {@link System#nanoTime()} when the search started
+     */
+    private Optional<Package> findBestPackage(FindBestPackageStrategy strategy, long startTS) {
+        switch (strategy) {
             case OPTIMIZED:
                 return findBestPackageOptimized();
             case BRUTE_FORCE:
                 return findBestPackageBruteForce();
             case KNAPSACK:
                 return findBestPackageKnapsack();
+            case VECTORIZED:
+                return findBestPackageVectorized();
+            case DP_BY_PRICE:
+                return findBestPackageByPrice();
+            case BRANCH_AND_BOUND:
+                return findBestPackageBranchAndBound(startTS);
+            case BOUNDED_KNAPSACK:
+                return findBestPackageBoundedKnapsack();
+            case LARGE_INSTANCE:
+                return findBestPackageLargeInstance();
+            case PARETO:
+                return findBestPackagePareto();
+            case APPROXIMATE:
+                return findBestPackageApproximate();
             default:
-                throw new IllegalStateException("Invalid FindBestPackageStrategy: " + getFindBestPackageStrategy());
+                throw new IllegalStateException("Invalid FindBestPackageStrategy: " + strategy);
         }
     }
 
@@ -196,11 +419,15 @@ public class PackageSpecification {
      * Finds the best package by iterating through all possible packages and selecting the best one.
      */
     private Optional<Package> findBestPackageBruteForce() {
-        // generate all subsets of the given set of products
-        // as the max number of products is <= 15 the Guava Sets.powerSet algorithm can be used
-        Set<Set<Product>> allPackages = Sets.powerSet(products);
+        // generate all subsets of the given set of products, the bit i of a mask for the product i,
+        // as the max number of products is <= 15 they all fit in memory
+        Product[] productsArray = products.toArray(new Product[0]);
+        exploredStates = 1L << productsArray.length;
         // find the best subset
-        return allPackages.stream()
+        return LongStream.range(0, exploredStates)
+            .mapToObj(mask -> BitSet.valueOf(new long[]{mask}).stream()
+                .mapToObj(index -> productsArray[index])
+                .collect(Collectors.toSet()))
             .map(Package::new)
             .filter(aPackage -> aPackage.getWeight() <= maxWeight)
             .max(Package.BEST_PACKAGE_COMPARATOR);
@@ -212,37 +439,159 @@ public class PackageSpecification {
      * and through those that are an extension of the former.
      */
     private Optional<Package> findBestPackageOptimized() {
-        Product[] productsArray = products.toArray(new Product[0]);
-        // Produces a stream of combinations of indexes of products
-        // with a condition that stops adding another product into a combination of products
-        // if that would exceed the max package weight
-        CombinationsStream combinationsStream = new CombinationsStream(productsArray.length,
-            (bitSet, i) -> {
-                double productsTotalWeight = bitSet.stream()
-                    .mapToObj(index -> productsArray[index])
-                    .mapToDouble(Product::getWeight)
-                    .reduce(Double::sum)
-                    .orElse(0.0);
-                return productsTotalWeight + productsArray[i].getWeight() <= maxWeight;
+        SolverWorkspace workspace = loadWorkspace();
+        long[] weights = workspace.getWeights();
+        // stops adding another product into a combination of products if that would exceed the max package weight
+        BestCombination best = new BestCombination();
+        exploredStates = workspace.getCombinationsEnumerator().enumerate(weights, workspace.getPrices(), workspace.getCount(),
+            (mask, weight, price, i) -> weight + weights[i] <= maxWeight,
+            best);
+        return Optional.of(new Package(workspace.getProducts(best.mask)));
+    }
+
+    /**
+     * Keeps the best of the enumerated combinations: the most expensive, then the lightest, then the one with the lowest mask.
+     */
+    private static class BestCombination implements CombinationsEnumerator.CombinationConsumer {
+        private long mask = -1;
+        private long weight;
+        private long price;
+
+        @Override
+        public void accept(long mask, long weight, long price) {
+            if (this.mask < 0 || price > this.price || (price == this.price
+                && (weight < this.weight || (weight == this.weight && mask < this.mask)))) {
+                this.mask = mask;
+                this.weight = weight;
+                this.price = price;
             }
-        );
-        // The stream of combinations of indexes of products is transformed to a stream of Packages
-        // and then the best package is extracted
-        return combinationsStream.toBitSetStream()
-            .map(bitSet -> bitSet.stream()
-                .mapToObj(index -> productsArray[index])
-                .collect(Collectors.toSet()))
-            .map(Package::new)
-            .max(Package.BEST_PACKAGE_COMPARATOR);
+        }
     }
 
     /**
      * Finds the best package using the classical Knapsack algorithm.
      */
     private Optional<Package> findBestPackageKnapsack() {
-        Product[] productsArray = products.toArray(new Product[0]);
-        BitSet max = new Knapsack(productsArray).findMax(getMaxWeight());
-        Set<Product> packageProducts = max.stream().mapToObj(index -> productsArray[index]).collect(Collectors.toSet());
-        return Optional.of(new Package(packageProducts));
+        SolverWorkspace workspace = loadWorkspace();
+        return findBestPackage(workspace, workspace.getKnapsack());
+    }
+
+    /**
+     * Finds the best package by evaluating all possible packages as in the brute force approach,
+     * but using primitive arrays with the total weight and price of every subset of products
+     * that are processed in SIMD lanes when the Vector API is available.
+     */
+    private Optional<Package> findBestPackageVectorized() {
+        SolverWorkspace workspace = loadWorkspace();
+        return findBestPackage(workspace, workspace.getSubsetSumsSolver());
+    }
+
+    /**
+     * Finds the best package using the Knapsack algorithm indexed by price
+     * or the classical one in case some prices are not integers.
+     */
+    private Optional<Package> findBestPackageByPrice() {
+        SolverWorkspace workspace = loadWorkspace();
+        PriceIndexedKnapsack priceIndexedKnapsack = workspace.getPriceIndexedKnapsack();
+        if (!priceIndexedKnapsack.canSolve(workspace.getPrices(), workspace.getCount())) {
+            return findBestPackage(workspace, workspace.getKnapsack());
+        }
+        return findBestPackage(workspace, priceIndexedKnapsack);
+    }
+
+    /**
+     * Finds the best package using the Knapsack algorithm on the products grouped by weight and price,
+     * which is faster for the packages with many identical products.
+     */
+    private Optional<Package> findBestPackageBoundedKnapsack() {
+        SolverWorkspace workspace = loadWorkspace();
+        return findBestPackage(workspace, workspace.getBoundedKnapsack());
+    }
+
+    /**
+     * Finds the best package from the list of the packages not dominated by a lighter and more expensive one,
+     * which is usually small for the lines where only a few products fit.
+     */
+    private Optional<Package> findBestPackagePareto() {
+        SolverWorkspace workspace = loadWorkspace();
+        return findBestPackage(workspace, workspace.getParetoSolver());
+    }
+
+    /**
+     * Finds the best package using the Knapsack algorithm with memory linear in the max weight,
+     * for the packages with many products and big max weights.
+     */
+    private Optional<Package> findBestPackageLargeInstance() {
+        Product[] productsArray = getProductsArray();
+        long[] weights = new long[productsArray.length];
+        long[] prices = new long[productsArray.length];
+        for (int i = 0; i < productsArray.length; i++) {
+            weights[i] = productsArray[i].getWeight();
+            prices[i] = productsArray[i].getPrice();
+        }
+        LargeInstanceKnapsack knapsack = SolverWorkspace.current().getLargeInstanceKnapsack(largeInstancePool);
+        BitSet selected = knapsack.solve(weights, prices, productsArray.length, getMaxWeight());
+        exploredStates = knapsack.getExploredStates();
+        return Optional.of(new Package(selected.stream()
+            .mapToObj(index -> productsArray[index])
+            .collect(Collectors.toSet())));
+    }
+
+    /**
+     * Finds a package with a price of at least <code>(1 - epsilon)</code> times the best price
+     * using the Knapsack algorithm on the prices scaled down by epsilon, in a time that does not depend on the weights.
+     */
+    private Optional<Package> findBestPackageApproximate() {
+        Product[] productsArray = getProductsArray();
+        long[] weights = new long[productsArray.length];
+        long[] prices = new long[productsArray.length];
+        for (int i = 0; i < productsArray.length; i++) {
+            weights[i] = productsArray[i].getWeight();
+            prices[i] = productsArray[i].getPrice();
+        }
+        ApproximateKnapsack knapsack = SolverWorkspace.current().getApproximateKnapsack();
+        BitSet selected = knapsack.solve(weights, prices, productsArray.length, getMaxWeight(), epsilon);
+        exploredStates = knapsack.getExploredStates();
+        return Optional.of(new Package(selected.stream()
+            .mapToObj(index -> productsArray[index])
+            .collect(Collectors.toSet()), false));
+    }
+
+    /**
+     * Finds the best package with the anytime branch and bound algorithm,
+     * stopping at the end of the time budget if there is one.
+     *
+     * @param startTS the {@link System#nanoTime()} when the search started
+     */
+    private Optional<Package> findBestPackageBranchAndBound(long startTS) {
+        SolverWorkspace workspace = loadWorkspace();
+        BranchAndBoundSolver solver = workspace.getBranchAndBoundSolver();
+        if (timeBudget == null) {
+            return findBestPackage(workspace, solver);
+        }
+        solver.setTrace(trace);
+        long mask = solver.solve(workspace.getWeights(), workspace.getPrices(), workspace.getCount(), getMaxWeight(),
+            startTS + timeBudget.toNanos());
+        exploredStates = solver.getExploredStates();
+        return Optional.of(new Package(workspace.getProducts(mask), solver.isOptimal()));
+    }
+
+    /**
+     * @return the workspace of the current thread loaded with the products
+     */
+    private SolverWorkspace loadWorkspace() {
+        SolverWorkspace workspace = SolverWorkspace.current();
+        workspace.load(products);
+        return workspace;
+    }
+
+    /**
+     * Finds the best package of the products loaded in the workspace with one of its solvers.
+     */
+    private Optional<Package> findBestPackage(SolverWorkspace workspace, PackageSolver solver) {
+        solver.setTrace(trace);
+        long mask = solver.solve(workspace.getWeights(), workspace.getPrices(), workspace.getCount(), getMaxWeight());
+        exploredStates = solver.getExploredStates();
+        return Optional.of(new Package(workspace.getProducts(mask)));
     }
 }
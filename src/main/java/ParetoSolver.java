@@ -0,0 +1,138 @@
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Nemhauser–Ullmann algorithm: it builds, product by product, the list of the packages that are not dominated by
+ * another package, having a lower or equal weight and a higher or equal price, and fit within the max weight.<br>
+ * The weights can be any exact fixed-point values, the list is not indexed by the capacity,
+ * and it usually stays far smaller than the 2^n possible packages.
+ * The list is kept ordered by weight with strictly increasing prices, so its last package is the best one.
+ * On the same weight and price the package with the lower mask is kept: the products are added in the index order,
+ * so the packages built from it later still have the lower masks.
+ * The lists grow with the biggest list found and are then reused.
+ */
+public class ParetoSolver implements PackageSolver {
+    private static final int INITIAL_SIZE = 256;
+
+    private final int maxProducts;
+
+    // the current list of packages and the next one built from it
+    private long[] weights = new long[INITIAL_SIZE];
+    private long[] prices = new long[INITIAL_SIZE];
+    private long[] masks = new long[INITIAL_SIZE];
+    private long[] nextWeights = new long[INITIAL_SIZE];
+    private long[] nextPrices = new long[INITIAL_SIZE];
+    private long[] nextMasks = new long[INITIAL_SIZE];
+    private int size;
+    private int nextSize;
+    private long exploredStates;
+
+    /**
+     * @param maxProducts the max number of products of a package
+     */
+    public ParetoSolver(int maxProducts) {
+        Preconditions.checkArgument(maxProducts >= 0 && maxProducts < Long.SIZE, "The max products should be between 0 and 63.");
+        this.maxProducts = maxProducts;
+    }
+
+    @Override
+    public long solve(long[] productWeights, long[] productPrices, int count, long maxWeight) {
+        if (count > maxProducts) {
+            throw new IllegalArgumentException("Too many products: " + count);
+        }
+        exploredStates = 0;
+        if (maxWeight < 0) {
+            return 0;
+        }
+        // the empty package
+        weights[0] = 0;
+        prices[0] = 0;
+        masks[0] = 0;
+        size = 1;
+        for (int i = 0; i < count; i++) {
+            addProduct(productWeights[i], productPrices[i], 1L << i, maxWeight);
+            exploredStates += size;
+        }
+        return masks[size - 1];
+    }
+
+    @Override
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    /**
+     * Merges the current list with the packages obtained by adding the product to each of them,
+     * both ordered by weight, and keeps only the packages that are not dominated.
+     */
+    private void addProduct(long weight, long price, long bit, long maxWeight) {
+        ensureNextCapacity(2 * size);
+        nextSize = 0;
+        int without = 0;
+        int with = 0;
+        while (without < size || with < size) {
+            boolean withFits = with < size && weights[with] + weight <= maxWeight;
+            if (!withFits) {
+                // the packages with the product are ordered by weight, none of the following fits either
+                with = size;
+                if (without == size) {
+                    break;
+                }
+            }
+            if (!withFits || (without < size && isBefore(weights[without], prices[without], masks[without],
+                weights[with] + weight, prices[with] + price, masks[with] | bit))) {
+                keep(weights[without], prices[without], masks[without]);
+                without++;
+            } else {
+                keep(weights[with] + weight, prices[with] + price, masks[with] | bit);
+                with++;
+            }
+        }
+        long[] swap = weights;
+        weights = nextWeights;
+        nextWeights = swap;
+        swap = prices;
+        prices = nextPrices;
+        nextPrices = swap;
+        swap = masks;
+        masks = nextMasks;
+        nextMasks = swap;
+        size = nextSize;
+    }
+
+    /**
+     * @return true if the first package comes before the second one: lower weight, then higher price, then lower mask
+     */
+    private static boolean isBefore(long weight, long price, long mask, long otherWeight, long otherPrice, long otherMask) {
+        return weight < otherWeight
+            || (weight == otherWeight && (price > otherPrice || (price == otherPrice && mask < otherMask)));
+    }
+
+    /**
+     * Adds the package to the next list unless it is dominated by the last one,
+     * which has a lower or equal weight and then must have a lower price.
+     */
+    private void keep(long weight, long price, long mask) {
+        if (nextSize > 0 && price <= nextPrices[nextSize - 1]) {
+            return;
+        }
+        nextWeights[nextSize] = weight;
+        nextPrices[nextSize] = price;
+        nextMasks[nextSize] = mask;
+        nextSize++;
+    }
+
+    private void ensureNextCapacity(int capacity) {
+        if (nextWeights.length < capacity) {
+            int length = Math.max(capacity, 2 * nextWeights.length);
+            nextWeights = new long[length];
+            nextPrices = new long[length];
+            nextMasks = new long[length];
+            // the current list becomes the next one after the merge, it must be as big
+            weights = Arrays.copyOf(weights, length);
+            prices = Arrays.copyOf(prices, length);
+            masks = Arrays.copyOf(masks, length);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events of the processing stages of every input line: read, parse, validate, solve and write.<br>
+ * They are recorded only when a recording is started, for example with
+ * <code>java -XX:StartFlightRecording=filename=run.jfr ...</code>, and then show in JDK Mission Control,
+ * under the "Best Package" category, the duration of every stage of every line.
+ * When no recording is running the events are disabled and cost almost nothing.
+ */
+public final class PipelineEvents {
+    private static final String CATEGORY = "Best Package";
+
+    private PipelineEvents() {
+    }
+
+    @Name("bestpackage.LineRead")
+    @Label("Line Read")
+    @Description("Reads one line of the input file")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class LineRead extends Event {
+        @Label("Line Number")
+        int lineNumber;
+
+        @Label("Bytes")
+        long bytes;
+    }
+
+    @Name("bestpackage.Parse")
+    @Label("Parse")
+    @Description("Parses one line into a package specification")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class Parse extends Event {
+        @Label("Line Number")
+        int lineNumber;
+
+        @Label("Valid")
+        boolean valid;
+    }
+
+    @Name("bestpackage.Validate")
+    @Label("Validate")
+    @Description("Checks the constraints of one package specification")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class Validate extends Event {
+        @Label("Line Number")
+        int lineNumber;
+
+        @Label("Valid")
+        boolean valid;
+    }
+
+    @Name("bestpackage.Solve")
+    @Label("Solve")
+    @Description("Finds the best package of one package specification")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class Solve extends Event {
+        @Label("Line Number")
+        int lineNumber;
+
+        @Label("Strategy")
+        String strategy;
+
+        @Label("Products")
+        int products;
+
+        @Label("Explored States")
+        @Description("The partial or complete packages explored by the algorithm")
+        long exploredStates;
+
+        @Label("Optimal")
+        boolean optimal;
+    }
+
+    @Name("bestpackage.Write")
+    @Label("Write")
+    @Description("Writes the best package of one line")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class Write extends Event {
+        @Label("Line Number")
+        int lineNumber;
+    }
+}
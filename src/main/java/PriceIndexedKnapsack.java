@@ -0,0 +1,105 @@
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
+/**
+ * Knapsack algorithm indexed by the total price instead of the capacity: for every achievable total price
+ * it computes the minimum total weight of the products having it.<br>
+ * It can be used only when all the prices are non-negative integers, which keeps the table small
+ * (at most 1501 entries for 15 products with prices up to 100), while the weights can have any value
+ * with 2 decimals as they are exact fixed-point values.
+ * The best package is then the one with the highest price whose minimum weight fits in the package,
+ * which directly gives the minimum weight for the same price tie-break.
+ * The table is allocated once for the max number of products and the max product price.
+ */
+public class PriceIndexedKnapsack implements PackageSolver {
+    // the selected products are kept as a bit mask per price
+    private static final int MAX_PRODUCTS = Long.SIZE - 1;
+
+    private final int maxProducts;
+    // minWeights[price] is the min weight of the products having that total price, masks[price] are those products
+    private final long[] minWeights;
+    private final long[] masks;
+    private long exploredStates;
+
+    /**
+     * @param maxProducts     the max number of products of a package
+     * @param maxProductPrice the max price of a product in hundredths
+     */
+    public PriceIndexedKnapsack(int maxProducts, long maxProductPrice) {
+        Preconditions.checkArgument(maxProducts >= 0 && maxProducts <= MAX_PRODUCTS, "The max products should be between 0 and %s.", MAX_PRODUCTS);
+        Preconditions.checkArgument(maxProductPrice >= 0, "The max product price should not be negative.");
+        this.maxProducts = maxProducts;
+        int size = Math.toIntExact(Math.multiplyExact(maxProducts, maxProductPrice / FixedPoint.SCALE) + 1);
+        this.minWeights = new long[size];
+        this.masks = new long[size];
+    }
+
+    /**
+     * @return true if the products can be handled by this algorithm
+     */
+    public boolean canSolve(long[] prices, int count) {
+        if (count > maxProducts) {
+            return false;
+        }
+        long totalPrice = 0;
+        for (int i = 0; i < count; i++) {
+            if (prices[i] < 0 || prices[i] % FixedPoint.SCALE != 0) {
+                return false;
+            }
+            totalPrice += prices[i] / FixedPoint.SCALE;
+        }
+        return totalPrice < minWeights.length;
+    }
+
+    @Override
+    public long solve(long[] weights, long[] prices, int count, long maxWeight) {
+        if (!canSolve(prices, count)) {
+            throw new IllegalArgumentException("The prices should be non-negative integers not exceeding the max product price.");
+        }
+        int totalPrice = 0;
+        for (int i = 0; i < count; i++) {
+            totalPrice += toIndex(prices[i]);
+        }
+        Arrays.fill(minWeights, 0, totalPrice + 1, Long.MAX_VALUE);
+        minWeights[0] = 0;
+        masks[0] = 0;
+
+        int reachedPrice = 0;
+        exploredStates = 0;
+        for (int i = 0; i < count; i++) {
+            int price = toIndex(prices[i]);
+            long weight = weights[i];
+            reachedPrice += price;
+            exploredStates += reachedPrice - price + 1;
+            // go down so every product is added at most once
+            for (int p = reachedPrice; p >= price; p--) {
+                if (minWeights[p - price] == Long.MAX_VALUE) {
+                    continue;
+                }
+                long candidateWeight = minWeights[p - price] + weight;
+                // on equal weights the current combination is kept, it has the lower mask
+                if (candidateWeight <= maxWeight && candidateWeight < minWeights[p]) {
+                    minWeights[p] = candidateWeight;
+                    masks[p] = masks[p - price] | (1L << i);
+                }
+            }
+        }
+
+        for (int p = totalPrice; p > 0; p--) {
+            if (minWeights[p] <= maxWeight) {
+                return masks[p];
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    private static int toIndex(long price) {
+        return (int) (price / FixedPoint.SCALE);
+    }
+}
@@ -1,29 +1,47 @@
 import com.google.common.base.MoreObjects;
-import com.google.common.base.Objects;
 
 /**
- * Encapsulates a product with a number, weight and price.
+ * Encapsulates a product with a number, weight and price.<br>
+ * The weight and price are fixed-point values in hundredths, see {@link FixedPoint}.
  */
 public class Product {
     private final int number;
-    private final double weight;
-    private final double price;
+    private final long weight;
+    private final long price;
 
-    public Product(int number, double weight, double price) {
+    /**
+     * @param number the product number
+     * @param weight the weight in hundredths
+     * @param price  the price in hundredths
+     */
+    public Product(int number, long weight, long price) {
         this.number = number;
         this.weight = weight;
         this.price = price;
     }
 
+    /**
+     * Creates a product from decimal values that are rounded to hundredths.
+     */
+    public Product(int number, double weight, double price) {
+        this(number, FixedPoint.of(weight), FixedPoint.of(price));
+    }
+
     public int getNumber() {
         return number;
     }
 
-    public double getWeight() {
+    /**
+     * @return the weight in hundredths
+     */
+    public long getWeight() {
         return weight;
     }
 
-    public double getPrice() {
+    /**
+     * @return the price in hundredths
+     */
+    public long getPrice() {
         return price;
     }
 
@@ -33,21 +51,22 @@ public class Product {
         if (o == null || getClass() != o.getClass()) return false;
         Product product = (Product) o;
         return number == product.number &&
-            Double.compare(product.weight, weight) == 0 &&
-            Double.compare(product.price, price) == 0;
+            weight == product.weight &&
+            price == product.price;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(number, weight, price);
+        // the same hash as Objects.hashCode(number, weight, price) without boxing the fields
+        return (31 * (31 * (31 + number) + Long.hashCode(weight))) + Long.hashCode(price);
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
             .add("number", number)
-            .add("weight", weight)
-            .add("price", price)
+            .add("weight", FixedPoint.toString(weight))
+            .add("price", FixedPoint.toString(price))
             .toString();
     }
 }
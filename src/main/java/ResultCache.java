@@ -0,0 +1,233 @@
+import com.google.common.base.Preconditions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persistent cache of the best packages shared by the runs, and by the processes running at the same time.<br>
+ * The cache is a memory-mapped file of a fixed number of slots, an open-addressing hash table
+ * keyed by a 128-bit hash of the package specification and storing the mask of the products of its best package:<ul>
+ * <li>a key is searched in the {@link #PROBE_SLOTS} slots following its home slot
+ * <li>when they are all used by other keys one of them, chosen by the key, is overwritten,
+ * so the cache never grows and never needs to be cleaned
+ * <li>the process that opens the file first holds a lock on it and is the only writer, the others only read
+ * <li>every slot is a seqlock: its sequence is odd while it is written, and a reader that sees the sequence change
+ * treats the slot as a miss, so a reader never gets the key of one write with the mask of another
+ * </ul>
+ * The file starts with a header of {@link #HEADER_SIZE} bytes: the magic number, the version and the number of slots.
+ * Every slot takes {@link #SLOT_SIZE} bytes: the sequence, the two longs of the key and the mask, in the native byte order.
+ */
+public class ResultCache implements Closeable {
+    static final int MAGIC = 0x50434348;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int SLOT_SIZE = 32;
+    static final int PROBE_SLOTS = 8;
+    static final int DEFAULT_SLOTS = 1 << 20;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final FileLock writerLock;
+    private final MappedByteBuffer buffer;
+    private final long slots;
+
+    private long hits;
+    private long misses;
+
+    private ResultCache(FileChannel channel, FileLock writerLock, MappedByteBuffer buffer, long slots) {
+        this.channel = channel;
+        this.writerLock = writerLock;
+        this.buffer = buffer;
+        this.slots = slots;
+    }
+
+    /**
+     * Opens the cache file, it is created with the given number of slots if it does not exist.
+     * The cache is writable only if no other process has it open for writing.
+     *
+     * @param slots the number of slots of a new file, an existing file keeps its own number of slots
+     * @throws IOException in case the file cannot be opened or is not a cache file
+     */
+    public static ResultCache open(Path path, int slots) throws IOException {
+        Preconditions.checkArgument(slots >= PROBE_SLOTS, "The cache should have at least %s slots.", PROBE_SLOTS);
+        Preconditions.checkArgument(slots <= (Integer.MAX_VALUE - HEADER_SIZE) / SLOT_SIZE, "Too many slots: %s", slots);
+        if (!Files.exists(path)) {
+            create(path, slots);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock writerLock = tryLock(channel);
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a result cache file: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a result cache file: " + path);
+            }
+            long fileSlots = header.getLong(8);
+            if (fileSlots < PROBE_SLOTS || channel.size() != HEADER_SIZE + fileSlots * SLOT_SIZE) {
+                throw new IOException("Corrupted result cache file: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(writerLock != null ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                0, HEADER_SIZE + fileSlots * SLOT_SIZE);
+            return new ResultCache(channel, writerLock, buffer, fileSlots);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an empty cache file: the header and the zeroed slots are written into a temporary file
+     * that is then linked to the path, so the processes opening the cache at the same time never see it partly written.
+     * If another process creates the file first, its file is kept.
+     */
+    private static void create(Path path, int slots) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporaryPath = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(0, MAGIC)
+                    .putInt(4, VERSION)
+                    .putLong(8, slots);
+                channel.write(header, 0);
+                // the slots are zeroed, that is empty, by extending the file
+                channel.write(ByteBuffer.allocate(1), HEADER_SIZE + (long) slots * SLOT_SIZE - 1);
+            }
+            try {
+                // unlike a rename, a link never replaces the file of another process
+                Files.createLink(path, temporaryPath);
+            } catch (UnsupportedOperationException e) {
+                Files.move(temporaryPath, path);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // created by another process in the meantime
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // the writer is another cache of this JVM
+            return null;
+        }
+    }
+
+    /**
+     * Finds the mask of the best package of a specification.
+     *
+     * @return the mask or -1 if the specification is not in the cache
+     */
+    public long get(long keyHigh, long keyLow) {
+        long home = homeSlot(keyLow);
+        for (int i = 0; i < PROBE_SLOTS; i++) {
+            int offset = offset((home + i) % slots);
+            long sequence = (long) LONGS.getAcquire(buffer, offset);
+            if (sequence == 0) {
+                break;
+            }
+            long high = (long) LONGS.getOpaque(buffer, offset + 8);
+            long low = (long) LONGS.getOpaque(buffer, offset + 16);
+            long mask = (long) LONGS.getOpaque(buffer, offset + 24);
+            VarHandle.loadLoadFence();
+            if ((sequence & 1) == 0 && sequence == (long) LONGS.getOpaque(buffer, offset)
+                && high == keyHigh && low == keyLow) {
+                hits++;
+                return mask;
+            }
+        }
+        misses++;
+        return -1;
+    }
+
+    /**
+     * Stores the mask of the best package of a specification, nothing is stored if the cache is read-only.
+     */
+    public void put(long keyHigh, long keyLow, long mask) {
+        if (mask < 0) {
+            throw new IllegalArgumentException("The mask should not be negative.");
+        }
+        if (!isWritable()) {
+            return;
+        }
+        long home = homeSlot(keyLow);
+        int target = -1;
+        for (int i = 0; i < PROBE_SLOTS && target < 0; i++) {
+            int offset = offset((home + i) % slots);
+            if ((long) LONGS.get(buffer, offset) == 0
+                || ((long) LONGS.get(buffer, offset + 8) == keyHigh && (long) LONGS.get(buffer, offset + 16) == keyLow)) {
+                target = offset;
+            }
+        }
+        if (target < 0) {
+            // evict one of the probed slots, chosen by other bits of the key than the home slot
+            target = offset((home + Long.remainderUnsigned(keyHigh, PROBE_SLOTS)) % slots);
+        }
+        long sequence = (long) LONGS.get(buffer, target);
+        LONGS.setOpaque(buffer, target, sequence + 1);
+        // the odd sequence is visible before any of the data stores, a release store only orders the earlier accesses
+        VarHandle.storeStoreFence();
+        LONGS.setOpaque(buffer, target + 8, keyHigh);
+        LONGS.setOpaque(buffer, target + 16, keyLow);
+        LONGS.setOpaque(buffer, target + 24, mask);
+        LONGS.setRelease(buffer, target, sequence + 2);
+    }
+
+    private long homeSlot(long keyLow) {
+        return (keyLow & Long.MAX_VALUE) % slots;
+    }
+
+    private static int offset(long slot) {
+        return (int) (HEADER_SIZE + slot * SLOT_SIZE);
+    }
+
+    /**
+     * @return false if another process writes the cache and this one can only read it
+     */
+    public boolean isWritable() {
+        return writerLock != null;
+    }
+
+    public long getSlots() {
+        return slots;
+    }
+
+    /**
+     * @return the number of specifications found in the cache since it was opened
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of specifications not found in the cache since it was opened
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (isWritable()) {
+            buffer.force();
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * Subset evaluator using plain loops, used when the Vector API is not available.
+ */
+public class ScalarSubsetEvaluator implements SubsetEvaluator {
+    @Override
+    public void computeSums(long[] values, int n, long[] sums) {
+        sums[0] = 0;
+        for (int k = 0; k < n; k++) {
+            int size = 1 << k;
+            long value = values[k];
+            for (int mask = 0; mask < size; mask++) {
+                sums[size + mask] = sums[mask] + value;
+            }
+        }
+    }
+
+    @Override
+    public int findBest(long[] weightSums, long[] priceSums, int subsets, long maxWeight) {
+        int best = 0;
+        for (int mask = 1; mask < subsets; mask++) {
+            if (weightSums[mask] <= maxWeight
+                && (priceSums[mask] > priceSums[best]
+                || (priceSums[mask] == priceSums[best] && weightSums[mask] < weightSums[best]))) {
+                best = mask;
+            }
+        }
+        return best;
+    }
+}
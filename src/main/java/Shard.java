@@ -0,0 +1,63 @@
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+
+/**
+ * A part of the input file processed by one worker: the lines starting in a byte range.<br>
+ * The range starts and ends just after a line terminator, and the index of its first line in the whole file is known,
+ * so the worker reports the same line numbers as a single process would.
+ */
+public class Shard {
+    private final long startOffset;
+    private final long endOffset;
+    private final int firstLineIndex;
+
+    /**
+     * @param startOffset    the byte offset of the first line
+     * @param endOffset      the byte offset just after the terminator of the last line
+     * @param firstLineIndex the index of the first line in the whole file
+     */
+    public Shard(long startOffset, long endOffset, int firstLineIndex) {
+        Preconditions.checkArgument(startOffset >= 0 && startOffset <= endOffset, "Invalid range: %s-%s", startOffset, endOffset);
+        Preconditions.checkArgument(firstLineIndex >= 0, "The first line index should not be negative.");
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        this.firstLineIndex = firstLineIndex;
+    }
+
+    public long getStartOffset() {
+        return startOffset;
+    }
+
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    public int getFirstLineIndex() {
+        return firstLineIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Shard shard = (Shard) o;
+        return startOffset == shard.startOffset &&
+            endOffset == shard.endOffset &&
+            firstLineIndex == shard.firstLineIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(startOffset, endOffset, firstLineIndex);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("startOffset", startOffset)
+            .add("endOffset", endOffset)
+            .add("firstLineIndex", firstLineIndex)
+            .toString();
+    }
+}
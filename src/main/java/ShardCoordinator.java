@@ -0,0 +1,224 @@
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Processes one input file with several local worker JVMs, to get past the GC and memory bandwidth limits of a single one:<ul>
+ * <li>the file is split into byte ranges starting and ending just after a line terminator, see {@link Shard}
+ * <li>a worker JVM is started for every range, writing the results of its lines into its own part file
+ * with the same line numbers as a single process
+ * <li>the part files are then concatenated in order into the output file
+ * </ul>
+ * The workers are plain {@link FindBestPackage} runs with the <code>--range</code> and <code>--first-line</code> options,
+ * so they can also be started by other means.
+ */
+public class ShardCoordinator {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CommandLineOptions options;
+    private final Path outputPath;
+
+    public ShardCoordinator(CommandLineOptions options) {
+        this.options = options;
+        this.outputPath = options.getOutputPath().orElseThrow(() -> new IllegalArgumentException("The workers require an output file."));
+    }
+
+    /**
+     * Runs the workers and merges their results into the output file.
+     * The part files left by a previous run are deleted first, so only the parts written by these workers are merged.
+     *
+     * @throws IOException in case a worker fails, that is exits with a non-zero status, then the part files are kept
+     */
+    public void run() throws IOException, InterruptedException {
+        List<Shard> shards = split(options.getInputPath(), options.getWorkers());
+        for (int i = 0; i < shards.size(); i++) {
+            Files.deleteIfExists(getPartPath(i));
+        }
+        List<Process> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < shards.size(); i++) {
+                workers.add(new ProcessBuilder(workerCommand(shards.get(i), getPartPath(i)))
+                    .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start());
+            }
+            for (int i = 0; i < workers.size(); i++) {
+                int exitValue = workers.get(i).waitFor();
+                if (exitValue != 0) {
+                    throw new IOException("The worker of " + shards.get(i) + " failed with the exit value " + exitValue + ".");
+                }
+            }
+        } finally {
+            // the remaining workers of a failed run are stopped before returning, so they do not write anymore
+            workers.forEach(Process::destroy);
+            for (Process worker : workers) {
+                worker.waitFor();
+            }
+        }
+        merge(shards.size());
+    }
+
+    private List<String> workerCommand(Shard shard, Path partPath) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            command.add("--add-modules");
+            command.add("jdk.incubator.vector");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(FindBestPackage.class.getName());
+        command.add("--strategy");
+        command.add(options.getStrategy().name());
+        options.getTimeBudget().ifPresent(timeBudget -> {
+            command.add("--time-budget");
+            command.add(Long.toString(timeBudget.toMillis()));
+        });
+        if (options.getStrategy() == PackageSpecification.FindBestPackageStrategy.APPROXIMATE) {
+            command.add("--epsilon");
+            command.add(Double.toString(options.getEpsilon()));
+        }
+        PackageLimits limits = options.getLimits();
+        command.add("--max-weight");
+        command.add(FixedPoint.toString(limits.getMaxPackageWeight()));
+        command.add("--max-products");
+        command.add(Integer.toString(limits.getMaxPackageProducts()));
+        command.add("--max-product-weight");
+        command.add(FixedPoint.toString(limits.getMaxProductWeight()));
+        command.add("--max-product-price");
+        command.add(FixedPoint.toString(limits.getMaxProductPrice()));
+        if (options.getLargeInstanceThreads() > 0) {
+            command.add("--large-instance-threads");
+            command.add(Integer.toString(options.getLargeInstanceThreads()));
+        }
+        options.getCachePath().ifPresent(cachePath -> {
+            command.add("--cache");
+            command.add(cachePath.toString());
+            command.add("--cache-slots");
+            command.add(Integer.toString(options.getCacheSlots()));
+        });
+        command.add("--range");
+        command.add(shard.getStartOffset() + "-" + shard.getEndOffset());
+        command.add("--first-line");
+        command.add(Integer.toString(shard.getFirstLineIndex()));
+        command.add("--output");
+        command.add(partPath.toString());
+        command.add(options.getInputPath().toString());
+        return command;
+    }
+
+    private Path getPartPath(int index) {
+        return outputPath.resolveSibling(outputPath.getFileName() + ".part" + index);
+    }
+
+    private void merge(int parts) throws IOException {
+        try (FileChannel output = FileChannel.open(outputPath,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < parts; i++) {
+                Path partPath = getPartPath(i);
+                try (FileChannel part = FileChannel.open(partPath, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = part.size();
+                    while (position < size) {
+                        position += part.transferTo(position, size - position, output);
+                    }
+                }
+                Files.delete(partPath);
+            }
+        }
+    }
+
+    /**
+     * Splits the file into ranges of about the same size ending just after a line terminator,
+     * and counts the lines before every range in one pass over the file.
+     * A line longer than a range makes the next range empty, the empty ranges are skipped.
+     *
+     * @param count the max number of ranges
+     * @return the non-empty ranges in the file order
+     */
+    static List<Shard> split(Path inputPath, int count) throws IOException {
+        Preconditions.checkArgument(count > 0, "The number of ranges should be positive.");
+        try (FileChannel channel = FileChannel.open(inputPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] boundaries = new long[count + 1];
+            for (int i = 1; i < count; i++) {
+                boundaries[i] = Math.max(boundaries[i - 1], alignToLineStart(channel, size / count * i, size));
+            }
+            boundaries[count] = size;
+
+            List<Shard> shards = new ArrayList<>();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long offset = 0;
+            int lines = 0;
+            boolean afterCarriageReturn = false;
+            for (int i = 0; i < count; i++) {
+                if (boundaries[i] == boundaries[i + 1]) {
+                    continue;
+                }
+                int firstLineIndex = lines;
+                // count the line terminators of the range, "\r\n" counting as one
+                while (offset < boundaries[i + 1]) {
+                    buffer.clear().limit((int) Math.min(BUFFER_SIZE, boundaries[i + 1] - offset));
+                    int read = channel.read(buffer, offset);
+                    if (read < 0) {
+                        throw new IOException("The input file was truncated: " + inputPath);
+                    }
+                    for (int j = 0; j < read; j++) {
+                        byte b = buffer.get(j);
+                        if (b == '\r' || (b == '\n' && !afterCarriageReturn)) {
+                            lines++;
+                        }
+                        afterCarriageReturn = b == '\r';
+                    }
+                    offset += read;
+                }
+                shards.add(new Shard(boundaries[i], boundaries[i + 1], firstLineIndex));
+            }
+            return shards;
+        }
+    }
+
+    /**
+     * @return the offset of the first line starting at or after the offset
+     */
+    private static long alignToLineStart(FileChannel channel, long offset, long size) throws IOException {
+        if (offset == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        // a line starts at the offset if the previous byte ends a line, except between the "\r" and "\n" of a terminator
+        long position = offset - 1;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int j = 0; j < read; j++) {
+                byte b = buffer.get(j);
+                if (b == '\n') {
+                    return position + j + 1;
+                }
+                if (b == '\r') {
+                    long next = position + j + 1;
+                    if (next < size && readByte(channel, next) == '\n') {
+                        return next + 1;
+                    }
+                    return next;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static byte readByte(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        channel.read(buffer, position);
+        return buffer.get(0);
+    }
+}
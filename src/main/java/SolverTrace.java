@@ -0,0 +1,141 @@
+import com.google.common.base.Preconditions;
+import com.pmihnea.bestpackage.core.StateListener;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Records the states explored by the solvers while finding the best package of one line,
+ * and writes them into a binary trace file only for the lines slower than a threshold.<br>
+ * Every state is packed into one long of a ring buffer allocated once, so recording does not allocate
+ * and only the last states of a very long search are kept:<ul>
+ * <li>bit 63: 1 if the state was expanded, 0 if it was pruned (a cached state or a branch cut by its bound)
+ * <li>bits 40 to 62: the index of the product
+ * <li>bits 0 to 39: the remaining capacity in hundredths
+ * </ul>
+ * The solvers only record when a trace is set on them, so there is a single null check per state when tracing is off.
+ * The trace file starts with {@link #MAGIC} and {@link #VERSION} followed by one record per slow line:
+ * the line number (int), the strategy ordinal (byte), the solve time in nanoseconds (long),
+ * the number of recorded states (long), the number of kept states (int) and the kept states (longs), oldest first.
+ * The file is summarized by {@link SolverTraceReader}.
+ */
+public class SolverTrace implements StateListener, Closeable {
+    static final int MAGIC = 0x534c5654;
+    static final short VERSION = 1;
+    static final int DEFAULT_BUFFER_STATES = 1 << 16;
+
+    static final long EXPANDED = 1L << 63;
+    static final int PRODUCT_SHIFT = 40;
+    static final long CAPACITY_MASK = (1L << PRODUCT_SHIFT) - 1;
+    static final long PRODUCT_MASK = (1L << (Long.SIZE - 1 - PRODUCT_SHIFT)) - 1;
+
+    private final DataOutputStream out;
+    private final long thresholdNanos;
+    private final long[] states;
+    private final int indexMask;
+
+    private long recorded;
+    private PackageSpecification.FindBestPackageStrategy strategy;
+    private long startTS;
+    private long endTS;
+    private int writtenLines;
+
+    /**
+     * @param path         the trace file, replaced if it exists
+     * @param threshold    the min solve time of the lines whose trace is written
+     * @param bufferStates the max number of states kept for one line, a power of 2
+     */
+    public SolverTrace(Path path, Duration threshold, int bufferStates) throws IOException {
+        Preconditions.checkArgument(!threshold.isNegative(), "The threshold should not be negative.");
+        Preconditions.checkArgument(bufferStates > 0 && Integer.bitCount(bufferStates) == 1,
+            "The buffer size should be a power of 2.");
+        this.thresholdNanos = threshold.toNanos();
+        this.states = new long[bufferStates];
+        this.indexMask = bufferStates - 1;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    public SolverTrace(Path path, Duration threshold) throws IOException {
+        this(path, threshold, DEFAULT_BUFFER_STATES);
+    }
+
+    /**
+     * Starts the trace of a line, dropping the states of the previous one.
+     */
+    void begin(PackageSpecification.FindBestPackageStrategy strategy) {
+        this.strategy = strategy;
+        recorded = 0;
+        startTS = System.nanoTime();
+    }
+
+    void end() {
+        endTS = System.nanoTime();
+    }
+
+    /**
+     * Records one explored state.
+     *
+     * @param product  the index of the product being decided
+     * @param capacity the remaining capacity in hundredths
+     * @param expanded true if the state was expanded, false if it was pruned
+     */
+    @Override
+    public void record(int product, long capacity, boolean expanded) {
+        states[(int) recorded & indexMask] = (expanded ? EXPANDED : 0)
+            | ((product & PRODUCT_MASK) << PRODUCT_SHIFT)
+            | (capacity & CAPACITY_MASK);
+        recorded++;
+    }
+
+    /**
+     * Writes the trace of the last line if its solve time reached the threshold.
+     *
+     * @return true if the trace was written
+     */
+    public boolean writeIfSlow(int lineNumber) throws IOException {
+        PackageSpecification.FindBestPackageStrategy lineStrategy = strategy;
+        // a line without a package, because it is invalid, is never written with the states of the previous one
+        strategy = null;
+        long nanos = endTS - startTS;
+        if (lineStrategy == null || nanos < thresholdNanos) {
+            return false;
+        }
+        int kept = (int) Math.min(recorded, states.length);
+        out.writeInt(lineNumber);
+        out.writeByte(lineStrategy.ordinal());
+        out.writeLong(nanos);
+        out.writeLong(recorded);
+        out.writeInt(kept);
+        for (long i = recorded - kept; i < recorded; i++) {
+            out.writeLong(states[(int) i & indexMask]);
+        }
+        writtenLines++;
+        return true;
+    }
+
+    /**
+     * @return the number of states recorded for the last line, including the ones dropped from the ring buffer
+     */
+    public long getRecordedStates() {
+        return recorded;
+    }
+
+    /**
+     * @return the number of lines written into the trace file
+     */
+    public int getWrittenLines() {
+        return writtenLines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,80 @@
+import com.google.common.base.Preconditions;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summarizes a trace file written with the <code>--trace</code> option, see {@link SolverTrace}.<br>
+ * For every traced line it prints the strategy, the solve time, the number of explored states,
+ * how many of them were expanded or pruned and the same counts for every product,
+ * which shows where the search spent its time.
+ * Usage: <code>SolverTraceReader &lt;trace file&gt;</code>
+ */
+public class SolverTraceReader {
+    public static void main(String[] args) throws IOException {
+        Preconditions.checkArgument(args.length == 1, "Usage: SolverTraceReader <trace file>");
+        summarize(Path.of(args[0]), System.out);
+    }
+
+    /**
+     * Prints the summary of every line of the trace file.
+     *
+     * @return the number of lines in the trace file
+     * @throws IOException in case the file cannot be read or is not a trace file
+     */
+    public static int summarize(Path path, PrintStream out) throws IOException {
+        PackageSpecification.FindBestPackageStrategy[] strategies = PackageSpecification.FindBestPackageStrategy.values();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SolverTrace.MAGIC || in.readShort() != SolverTrace.VERSION) {
+                throw new IOException("Not a solver trace file: " + path);
+            }
+            int lines = 0;
+            while (true) {
+                int lineNumber;
+                try {
+                    lineNumber = in.readInt();
+                } catch (EOFException e) {
+                    return lines;
+                }
+                int strategy = in.readUnsignedByte();
+                long nanos = in.readLong();
+                long recorded = in.readLong();
+                int kept = in.readInt();
+                if (strategy >= strategies.length || kept < 0 || kept > recorded) {
+                    throw new IOException("Corrupted solver trace file: " + path);
+                }
+
+                long expanded = 0;
+                long minCapacity = Long.MAX_VALUE;
+                // expanded and pruned states by product
+                Map<Integer, long[]> products = new TreeMap<>();
+                for (int i = 0; i < kept; i++) {
+                    long state = in.readLong();
+                    boolean isExpanded = (state & SolverTrace.EXPANDED) != 0;
+                    int product = (int) ((state >>> SolverTrace.PRODUCT_SHIFT) & SolverTrace.PRODUCT_MASK);
+                    minCapacity = Math.min(minCapacity, state & SolverTrace.CAPACITY_MASK);
+                    products.computeIfAbsent(product, key -> new long[2])[isExpanded ? 0 : 1]++;
+                    if (isExpanded) {
+                        expanded++;
+                    }
+                }
+                out.println(String.format(Locale.ROOT, "Line %d %s %.3f ms: %d states%s, %d expanded, %d pruned%s",
+                    lineNumber, strategies[strategy], nanos / 1e6, recorded,
+                    kept < recorded ? " (last " + kept + " kept)" : "",
+                    expanded, kept - expanded,
+                    kept > 0 ? ", min capacity " + FixedPoint.toString(minCapacity) : ""));
+                products.forEach((product, counts) ->
+                    out.println("  product " + product + ": " + counts[0] + " expanded, " + counts[1] + " pruned"));
+                lines++;
+            }
+        }
+    }
+}
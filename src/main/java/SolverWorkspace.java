@@ -0,0 +1,179 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Per-thread scratch space used to find the best packages without allocating for every package:<ul>
+ * <li>the products of the current package, ordered by number, and their weights and prices as primitive arrays
+ * <li>the {@link PackageSolver}s with their own buffers, created when first used
+ * </ul>
+ * Everything is sized for the limits of the package specifications,
+ * except the {@link LargeInstanceKnapsack} and the {@link ApproximateKnapsack} whose buffers grow with the packages exceeding them.
+ */
+public class SolverWorkspace {
+    static final Comparator<Product> PRODUCT_ORDER = Comparator.comparingInt(Product::getNumber)
+        .thenComparingLong(Product::getWeight)
+        .thenComparingLong(Product::getPrice);
+
+    private static final ThreadLocal<SolverWorkspace> CURRENT = ThreadLocal.withInitial(() -> new SolverWorkspace(
+        PackageSpecification.MAX_PACKAGE_PRODUCTS,
+        PackageSpecification.MAX_PACKAGE_WEIGHT,
+        PackageSpecification.MAX_PRODUCT_PRICE));
+
+    private final int maxProducts;
+    private final long maxWeight;
+    private final long maxProductPrice;
+
+    private final Product[] products;
+    private final long[] weights;
+    private final long[] prices;
+    private int count;
+
+    private Knapsack knapsack;
+    private PriceIndexedKnapsack priceIndexedKnapsack;
+    private SubsetSumsSolver subsetSumsSolver;
+    private BranchAndBoundSolver branchAndBoundSolver;
+    private BoundedKnapsack boundedKnapsack;
+    private LargeInstanceKnapsack largeInstanceKnapsack;
+    private ParetoSolver paretoSolver;
+    private CombinationsEnumerator combinationsEnumerator;
+    private ApproximateKnapsack approximateKnapsack;
+
+    /**
+     * @param maxProducts     the max number of products of a package
+     * @param maxWeight       the max weight of a package in hundredths
+     * @param maxProductPrice the max price of a product in hundredths
+     */
+    public SolverWorkspace(int maxProducts, long maxWeight, long maxProductPrice) {
+        this.maxProducts = maxProducts;
+        this.maxWeight = maxWeight;
+        this.maxProductPrice = maxProductPrice;
+        this.products = new Product[maxProducts];
+        this.weights = new long[maxProducts];
+        this.prices = new long[maxProducts];
+    }
+
+    /**
+     * @return the workspace of the current thread
+     */
+    public static SolverWorkspace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Loads the products of a package ordered by number, so the indexes used by the solvers,
+     * and then the package chosen among the ones with the same price and weight, do not depend on the set order.
+     *
+     * @return the number of products
+     */
+    public int load(Collection<Product> packageProducts) {
+        if (packageProducts.size() > maxProducts) {
+            throw new IllegalArgumentException("Too many products: " + packageProducts.size());
+        }
+        count = 0;
+        for (Product product : packageProducts) {
+            products[count++] = product;
+        }
+        Arrays.sort(products, 0, count, PRODUCT_ORDER);
+        for (int i = 0; i < count; i++) {
+            weights[i] = products[i].getWeight();
+            prices[i] = products[i].getPrice();
+        }
+        return count;
+    }
+
+    /**
+     * @return the loaded products selected by the mask
+     */
+    public Set<Product> getProducts(long mask) {
+        Set<Product> selected = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            if ((mask & (1L << i)) != 0) {
+                selected.add(products[i]);
+            }
+        }
+        return selected;
+    }
+
+    public long[] getWeights() {
+        return weights;
+    }
+
+    public long[] getPrices() {
+        return prices;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public Knapsack getKnapsack() {
+        if (knapsack == null) {
+            knapsack = new Knapsack(maxProducts, Math.toIntExact(maxWeight));
+        }
+        return knapsack;
+    }
+
+    public PriceIndexedKnapsack getPriceIndexedKnapsack() {
+        if (priceIndexedKnapsack == null) {
+            priceIndexedKnapsack = new PriceIndexedKnapsack(maxProducts, maxProductPrice);
+        }
+        return priceIndexedKnapsack;
+    }
+
+    public SubsetSumsSolver getSubsetSumsSolver() {
+        if (subsetSumsSolver == null) {
+            subsetSumsSolver = new SubsetSumsSolver(maxProducts, SubsetEvaluator.getDefault());
+        }
+        return subsetSumsSolver;
+    }
+
+    public BranchAndBoundSolver getBranchAndBoundSolver() {
+        if (branchAndBoundSolver == null) {
+            branchAndBoundSolver = new BranchAndBoundSolver(maxProducts);
+        }
+        return branchAndBoundSolver;
+    }
+
+    public BoundedKnapsack getBoundedKnapsack() {
+        if (boundedKnapsack == null) {
+            boundedKnapsack = new BoundedKnapsack(maxProducts, Math.toIntExact(maxWeight));
+        }
+        return boundedKnapsack;
+    }
+
+    /**
+     * @param pool the pool updating the long rows in parallel or null to update them sequentially,
+     *             the knapsack is created again when the pool changes
+     */
+    public LargeInstanceKnapsack getLargeInstanceKnapsack(ForkJoinPool pool) {
+        if (largeInstanceKnapsack == null || largeInstanceKnapsack.getPool() != pool) {
+            largeInstanceKnapsack = new LargeInstanceKnapsack(pool);
+        }
+        return largeInstanceKnapsack;
+    }
+
+    public ParetoSolver getParetoSolver() {
+        if (paretoSolver == null) {
+            paretoSolver = new ParetoSolver(maxProducts);
+        }
+        return paretoSolver;
+    }
+
+    public CombinationsEnumerator getCombinationsEnumerator() {
+        if (combinationsEnumerator == null) {
+            combinationsEnumerator = new CombinationsEnumerator(maxProducts);
+        }
+        return combinationsEnumerator;
+    }
+
+    public ApproximateKnapsack getApproximateKnapsack() {
+        if (approximateKnapsack == null) {
+            approximateKnapsack = new ApproximateKnapsack();
+        }
+        return approximateKnapsack;
+    }
+}
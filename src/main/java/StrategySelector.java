@@ -0,0 +1,228 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Chooses the strategy of the {@link PackageSpecification.FindBestPackageStrategy#ADAPTIVE} lines from the solve times
+ * observed on the previous lines of the same shape, as the fastest strategy depends on the shape and drifts with the input:<ul>
+ * <li>the lines are put into {@link #BUCKETS} buckets by cheap features: the number of products, the capacity tightness
+ * (the max weight divided by the total weight of the products) and the weight spread (the heaviest product compared to the lightest)
+ * <li>every bucket keeps, for every exact strategy, the solve time decayed exponentially by {@link #DECAY},
+ * so the recent lines weigh more than the old ones; the times are decayed geometrically, so a single line slowed down
+ * by the garbage collector or the JIT compiler does not rule out a strategy
+ * <li>a bucket first tries every strategy once and then takes the one with the lowest decayed time, except for
+ * up to {@link #EXPLORATION_RATE} of the lines which take another strategy to follow the drift; a strategy k times slower
+ * than the fastest one is explored k times less often, which bounds the cost of exploring to the same rate of the fastest time
+ * </ul>
+ * All the strategies find the same package, so the choice only changes the solve time.
+ * The learned table can be exported into a properties file and loaded again by the next run.
+ */
+public class StrategySelector {
+    static final PackageSpecification.FindBestPackageStrategy[] STRATEGIES = {
+        PackageSpecification.FindBestPackageStrategy.OPTIMIZED,
+        PackageSpecification.FindBestPackageStrategy.KNAPSACK,
+        PackageSpecification.FindBestPackageStrategy.VECTORIZED,
+        PackageSpecification.FindBestPackageStrategy.DP_BY_PRICE,
+        PackageSpecification.FindBestPackageStrategy.BRANCH_AND_BOUND,
+        PackageSpecification.FindBestPackageStrategy.BOUNDED_KNAPSACK,
+        PackageSpecification.FindBestPackageStrategy.PARETO
+    };
+
+    private static final int PRODUCTS_BINS = 4;
+    private static final int TIGHTNESS_BINS = 4;
+    private static final int SPREAD_BINS = 2;
+    static final int BUCKETS = PRODUCTS_BINS * TIGHTNESS_BINS * SPREAD_BINS;
+
+    static final double DECAY = 0.1;
+    static final double EXPLORATION_RATE = 0.05;
+
+    private static final String BUCKET = "bucket";
+
+    // the decayed solve time in nanoseconds and the number of solved lines by bucket and strategy
+    private final double[][] nanos = new double[BUCKETS][STRATEGIES.length];
+    private final long[][] samples = new long[BUCKETS][STRATEGIES.length];
+    private final SplittableRandom random;
+
+    public StrategySelector(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public StrategySelector() {
+        this(42);
+    }
+
+    /**
+     * @return the selector shared by the package specifications without their own
+     */
+    static StrategySelector getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    private static class DefaultHolder {
+        private static final StrategySelector DEFAULT = new StrategySelector();
+    }
+
+    /**
+     * @param count       the number of products
+     * @param maxWeight   the max weight of the package in hundredths
+     * @param totalWeight the total weight of the products in hundredths
+     * @param minWeight   the weight of the lightest product in hundredths
+     * @param maxWeightOfProduct the weight of the heaviest product in hundredths
+     * @return the bucket of the line
+     */
+    static int bucket(int count, long maxWeight, long totalWeight, long minWeight, long maxWeightOfProduct) {
+        int productsBin = Math.min(PRODUCTS_BINS - 1, Math.max(0, count - 1) / 4);
+        int tightnessBin;
+        if (maxWeight >= totalWeight) {
+            // all the products fit
+            tightnessBin = 3;
+        } else if (maxWeight * 2 >= totalWeight) {
+            tightnessBin = 2;
+        } else if (maxWeight * 4 >= totalWeight) {
+            tightnessBin = 1;
+        } else {
+            tightnessBin = 0;
+        }
+        int spreadBin = maxWeightOfProduct > 4 * minWeight ? 1 : 0;
+        return (productsBin * TIGHTNESS_BINS + tightnessBin) * SPREAD_BINS + spreadBin;
+    }
+
+    /**
+     * @return the strategy of the next line of the bucket
+     */
+    public synchronized PackageSpecification.FindBestPackageStrategy select(int bucket) {
+        long[] bucketSamples = samples[bucket];
+        double[] bucketNanos = nanos[bucket];
+        int fastest = -1;
+        for (int s = 0; s < STRATEGIES.length; s++) {
+            if (bucketSamples[s] == 0) {
+                return STRATEGIES[s];
+            }
+            if (fastest < 0 || bucketNanos[s] < bucketNanos[fastest]) {
+                fastest = s;
+            }
+        }
+        if (random.nextDouble() < EXPLORATION_RATE) {
+            int alternative = random.nextInt(STRATEGIES.length - 1);
+            if (alternative >= fastest) {
+                alternative++;
+            }
+            if (random.nextDouble() * bucketNanos[alternative] <= bucketNanos[fastest]) {
+                return STRATEGIES[alternative];
+            }
+        }
+        return STRATEGIES[fastest];
+    }
+
+    /**
+     * Records the solve time of a line of the bucket.
+     */
+    public synchronized void record(int bucket, PackageSpecification.FindBestPackageStrategy strategy, long solveNanos) {
+        int s = indexOf(strategy);
+        if (s < 0) {
+            throw new IllegalArgumentException("The strategy " + strategy + " is not selected adaptively.");
+        }
+        // the exponential moving average of the logarithm of the solve time, at least one nanosecond
+        double time = Math.max(1, solveNanos);
+        nanos[bucket][s] = samples[bucket][s] == 0 ? time : nanos[bucket][s] * Math.pow(time / nanos[bucket][s], DECAY);
+        samples[bucket][s]++;
+    }
+
+    /**
+     * @return the strategy currently chosen for the bucket, without exploring
+     */
+    public synchronized PackageSpecification.FindBestPackageStrategy getFastest(int bucket) {
+        int fastest = 0;
+        for (int s = 1; s < STRATEGIES.length; s++) {
+            if (samples[bucket][s] > 0 && (samples[bucket][fastest] == 0 || nanos[bucket][s] < nanos[bucket][fastest])) {
+                fastest = s;
+            }
+        }
+        return STRATEGIES[fastest];
+    }
+
+    private static int indexOf(PackageSpecification.FindBestPackageStrategy strategy) {
+        for (int s = 0; s < STRATEGIES.length; s++) {
+            if (STRATEGIES[s] == strategy) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Loads a table exported by {@link #export(Path)}, replacing the learned one.
+     * The entries of the strategies that are no longer selected adaptively are ignored.
+     *
+     * @throws IOException in case the file cannot be read or is corrupted
+     */
+    public synchronized void load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        double[][] loadedNanos = new double[BUCKETS][STRATEGIES.length];
+        long[][] loadedSamples = new long[BUCKETS][STRATEGIES.length];
+        for (String key : properties.stringPropertyNames()) {
+            // bucket<index>.<strategy>=<decayed nanos>,<samples>
+            int separator = key.indexOf('.');
+            String value = properties.getProperty(key);
+            int valueSeparator = value.indexOf(',');
+            try {
+                if (!key.startsWith(BUCKET) || separator < 0 || valueSeparator < 0) {
+                    throw new NumberFormatException(key);
+                }
+                int bucket = Integer.parseInt(key.substring(BUCKET.length(), separator));
+                int s = indexOf(strategy(key.substring(separator + 1)));
+                double bucketNanos = Double.parseDouble(value.substring(0, valueSeparator));
+                long bucketSamples = Long.parseLong(value.substring(valueSeparator + 1));
+                if (bucket < 0 || bucket >= BUCKETS || !(bucketNanos >= 1) || bucketSamples < 0) {
+                    throw new NumberFormatException(key);
+                }
+                if (s >= 0) {
+                    loadedNanos[bucket][s] = bucketNanos;
+                    loadedSamples[bucket][s] = bucketSamples;
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid strategy table file: " + path, e);
+            }
+        }
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            nanos[bucket] = loadedNanos[bucket];
+            samples[bucket] = loadedSamples[bucket];
+        }
+    }
+
+    private static PackageSpecification.FindBestPackageStrategy strategy(String name) {
+        return Arrays.stream(PackageSpecification.FindBestPackageStrategy.values())
+            .filter(strategy -> strategy.name().equals(name))
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * Writes the learned table into a temporary file that then atomically replaces the given file.
+     */
+    public synchronized void export(Path path) throws IOException {
+        Properties properties = new Properties();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            for (int s = 0; s < STRATEGIES.length; s++) {
+                if (samples[bucket][s] > 0) {
+                    properties.setProperty(BUCKET + bucket + "." + STRATEGIES[s].name(), nanos[bucket][s] + "," + samples[bucket][s]);
+                }
+            }
+        }
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8)) {
+            properties.store(writer, "FindBestPackage adaptive strategy table: bucket<index>.<strategy>=<decayed solve nanos>,<lines>");
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
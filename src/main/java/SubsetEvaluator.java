@@ -0,0 +1,55 @@
+/**
+ * Evaluates all the subsets of a small set of products (at most 15, so at most 32768 subsets)
+ * using primitive arrays indexed by the subset bit mask.<br>
+ * The bit <code>i</code> of a mask is set when the product with index <code>i</code> is part of the subset.
+ * The weights and prices are fixed-point values in hundredths, see {@link FixedPoint}.
+ */
+public interface SubsetEvaluator {
+    /**
+     * Computes the sums of the given values for all the 2^n subsets:
+     * <code>sums[mask]</code> is the sum of the <code>values[i]</code> for which the bit <code>i</code> of the mask is set.<br>
+     * The sums are built by doubling: the subsets containing the element <code>k</code> are the subsets of the first
+     * <code>k</code> elements extended with it, so <code>sums[2^k + mask] = sums[mask] + values[k]</code>.
+     *
+     * @param values the values of the n elements
+     * @param n      the number of elements
+     * @param sums   the result array having at least 2^n elements
+     */
+    void computeSums(long[] values, int n, long[] sums);
+
+    /**
+     * Finds the best subset that does not exceed the max weight: the one with the max price
+     * and in case of the same price the one with the min weight. The remaining ties are resolved by the lowest mask.
+     *
+     * @param weightSums the total weight of every subset
+     * @param priceSums  the total price of every subset
+     * @param subsets    the number of subsets
+     * @param maxWeight  the max weight of a subset
+     * @return the mask of the best subset, the empty subset 0 in case no other is better
+     */
+    int findBest(long[] weightSums, long[] priceSums, int subsets, long maxWeight);
+
+    /**
+     * @return the evaluator using the Vector API when the <code>jdk.incubator.vector</code> module is available
+     * (JDK 16+ started with <code>--add-modules jdk.incubator.vector</code>), otherwise the scalar evaluator
+     */
+    static SubsetEvaluator getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    class DefaultHolder {
+        private static final SubsetEvaluator DEFAULT = create();
+
+        private DefaultHolder() {
+        }
+
+        private static SubsetEvaluator create() {
+            try {
+                // compiled separately from src/main/java-vector as it needs a newer JDK than the rest of the code
+                return (SubsetEvaluator) Class.forName("VectorSubsetEvaluator").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarSubsetEvaluator();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+import com.google.common.base.Preconditions;
+
+/**
+ * Finds the best package by evaluating all the possible packages with a {@link SubsetEvaluator}
+ * over the primitive arrays of the total weight and price of every subset of products.<br>
+ * The arrays are allocated once for the max number of products (32768 elements for 15 products).
+ */
+public class SubsetSumsSolver implements PackageSolver {
+    // the masks of the evaluator are int indexes
+    private static final int MAX_PRODUCTS = 20;
+
+    private final int maxProducts;
+    private final SubsetEvaluator evaluator;
+    private final long[] weightSums;
+    private final long[] priceSums;
+    private long exploredStates;
+
+    /**
+     * @param maxProducts the max number of products of a package
+     * @param evaluator   the evaluator of the subsets
+     */
+    public SubsetSumsSolver(int maxProducts, SubsetEvaluator evaluator) {
+        Preconditions.checkArgument(maxProducts >= 0 && maxProducts <= MAX_PRODUCTS, "The max products should be between 0 and %s.", MAX_PRODUCTS);
+        Preconditions.checkNotNull(evaluator, "The evaluator should not be null.");
+        this.maxProducts = maxProducts;
+        this.evaluator = evaluator;
+        this.weightSums = new long[1 << maxProducts];
+        this.priceSums = new long[1 << maxProducts];
+    }
+
+    @Override
+    public long solve(long[] weights, long[] prices, int count, long maxWeight) {
+        if (count > maxProducts) {
+            throw new IllegalArgumentException("Too many products: " + count);
+        }
+        exploredStates = 1L << count;
+        evaluator.computeSums(weights, count, weightSums);
+        evaluator.computeSums(prices, count, priceSums);
+        return evaluator.findBest(weightSums, priceSums, 1 << count, maxWeight);
+    }
+
+    @Override
+    public long getExploredStates() {
+        return exploredStates;
+    }
+}
@@ -0,0 +1,170 @@
+import com.pmihnea.bestpackage.core.Hash128;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the output file up to date with an input file that is regenerated with mostly the same lines.<br>
+ * The results of the lines are kept in memory by the 128-bit hash of the line text, so on every change of the input file
+ * only the new or changed lines are solved again and the results of the others are reused,
+ * also for the lines repeated in the same file.
+ * The output file is then rewritten in a temporary file that atomically replaces it, so it is never seen partially written.
+ * The results of the lines that are no longer in the input file are dropped, and the packages that may not be optimal
+ * because their time budget expired are never reused, unlike the approximate packages which are reused as found.
+ */
+public class WatchMode {
+    // the input file is usually written in several steps, it is read again only once it is not changed for this period
+    private static final long QUIET_PERIOD_MILLIS = 200;
+
+    private final CommandLineOptions options;
+    private final Path inputPath;
+    private final Path outputPath;
+
+    private Map<LineHash, String> results = new HashMap<>();
+    private int solvedLines;
+    private int reusedLines;
+
+    public WatchMode(CommandLineOptions options) {
+        this.options = options;
+        this.inputPath = options.getInputPath().toAbsolutePath();
+        this.outputPath = options.getOutputPath().orElseThrow(() -> new IllegalArgumentException("The watch mode requires an output file."));
+    }
+
+    /**
+     * Updates the output file now and then every time the input file changes, until the thread is interrupted.
+     */
+    public void watch() throws IOException, InterruptedException {
+        updateAndReport();
+        Path directory = inputPath.getParent();
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || inputPath.getFileName().equals(event.context());
+                    }
+                    if (!key.reset()) {
+                        throw new IOException("The input directory cannot be watched anymore: " + directory);
+                    }
+                    key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (changed && Files.exists(inputPath)) {
+                    updateAndReport();
+                }
+            }
+        }
+    }
+
+    private void updateAndReport() throws IOException {
+        update();
+        System.err.println("Updated " + outputPath + ": " + solvedLines + " lines solved, " + reusedLines + " lines reused.");
+    }
+
+    /**
+     * Rewrites the output file for the current content of the input file, solving only the lines not seen before.
+     */
+    public void update() throws IOException {
+        Map<LineHash, String> currentResults = new HashMap<>();
+        solvedLines = 0;
+        reusedLines = 0;
+        Path temporaryPath = outputPath.resolveSibling(outputPath.getFileName() + ".tmp");
+        try (InputLineReader reader = new InputLineReader(Files.newInputStream(inputPath));
+             PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)),
+                 false, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Hash128 lineHash = new Hash128().putChars(line);
+                LineHash hash = new LineHash(lineHash.getHigh(), lineHash.getLow());
+                // a line repeated in the same file is solved only once
+                String result = currentResults.get(hash);
+                if (result == null) {
+                    result = results.get(hash);
+                }
+                if (result != null) {
+                    reusedLines++;
+                    currentResults.put(hash, result);
+                } else {
+                    solvedLines++;
+                    Optional<Package> bestPackage = FindBestPackage.findBestPackage(line, reader.getLineIndex(), options);
+                    result = new OutputLine(bestPackage).toString();
+                    // the approximate packages are expected not to be optimal, only an expired time budget prevents the reuse
+                    if (bestPackage.map(Package::isOptimal).orElse(true)
+                        || options.getStrategy() == PackageSpecification.FindBestPackageStrategy.APPROXIMATE) {
+                        currentResults.put(hash, result);
+                    }
+                }
+                out.println(result);
+            }
+            out.flush();
+            if (out.checkError()) {
+                throw new IOException("The output file cannot be written: " + temporaryPath);
+            }
+        }
+        Files.move(temporaryPath, outputPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        results = currentResults;
+    }
+
+    /**
+     * The 128-bit hash of a line text, see {@link Hash128}.
+     */
+    private static final class LineHash {
+        private final long high;
+        private final long low;
+
+        private LineHash(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LineHash)) {
+                return false;
+            }
+            LineHash other = (LineHash) o;
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(low);
+        }
+    }
+
+    /**
+     * @return the number of lines solved by the last update
+     */
+    public int getSolvedLines() {
+        return solvedLines;
+    }
+
+    /**
+     * @return the number of lines whose previous result was reused by the last update
+     */
+    public int getReusedLines() {
+        return reusedLines;
+    }
+}
@@ -0,0 +1,61 @@
+package com.pmihnea.bestpackage.core;
+
+/**
+ * 128-bit hash of a sequence of <code>long</code> values, used as the key of a package specification in a cache
+ * or of an input line,
+ * without going through a byte array and without allocating:<ul>
+ * <li>the hash is made of two 64-bit lanes started from different seeds
+ * <li>every value is combined into each lane, differently, and the lane is then scrambled by the SplitMix64 finalizer
+ * </ul>
+ * It is not a cryptographic hash, two sequences colliding on both lanes are only as likely as for a random 128-bit key.
+ */
+public final class Hash128 {
+    private static final long SEED_HIGH = 0x243F6A8885A308D3L;
+    private static final long SEED_LOW = 0x13198A2E03707344L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long high = SEED_HIGH;
+    private long low = SEED_LOW;
+
+    public Hash128 putLong(long value) {
+        high = mix(high ^ value);
+        low = mix(low + value * GOLDEN_GAMMA + GOLDEN_GAMMA);
+        return this;
+    }
+
+    /**
+     * Combines the length of the characters and then the characters themselves, four UTF-16 chars in every value,
+     * so two different character sequences are never combined as the same values.
+     */
+    public Hash128 putChars(CharSequence chars) {
+        int length = chars.length();
+        putLong(length);
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            putLong(chars.charAt(i) | (long) chars.charAt(i + 1) << 16
+                | (long) chars.charAt(i + 2) << 32 | (long) chars.charAt(i + 3) << 48);
+        }
+        if (i < length) {
+            long tail = 0;
+            for (int shift = 0; i < length; i++, shift += 16) {
+                tail |= (long) chars.charAt(i) << shift;
+            }
+            putLong(tail);
+        }
+        return this;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,63 @@
+package com.pmihnea.bestpackage.core;
+
+/**
+ * Parses the decimal weights and prices directly into a <code>long</code> number of hundredths,
+ * without going through a double and without allocating.
+ */
+public final class Hundredths {
+    public static final int DECIMALS = 2;
+
+    private Hundredths() {
+    }
+
+    /**
+     * Parses the decimal number having at most 2 decimals found in the text from <code>start</code> to <code>end</code>, excluded.
+     *
+     * @throws NumberFormatException in case the region is not such a decimal number or it is too big
+     */
+    public static long parse(CharSequence text, int start, int end) {
+        if (start >= end) {
+            throw new NumberFormatException("Empty decimal number.");
+        }
+        int i = start;
+        boolean negative = false;
+        if (text.charAt(i) == '-' || text.charAt(i) == '+') {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        int decimals = -1; // no decimal point yet
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (decimals >= DECIMALS) {
+                    throw new NumberFormatException("More than " + DECIMALS + " decimals: " + text.subSequence(start, end));
+                }
+                value = multiplyBy10(value, text, start, end) + (c - '0');
+                digits++;
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                throw new NumberFormatException("Invalid decimal number: " + text.subSequence(start, end));
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid decimal number: " + text.subSequence(start, end));
+        }
+        for (int d = Math.max(decimals, 0); d < DECIMALS; d++) {
+            value = multiplyBy10(value, text, start, end);
+        }
+        return negative ? -value : value;
+    }
+
+    private static long multiplyBy10(long value, CharSequence text, int start, int end) {
+        if (value > (Long.MAX_VALUE - 9) / 10) {
+            throw new NumberFormatException("Too big decimal number: " + text.subSequence(start, end));
+        }
+        return value * 10;
+    }
+}
@@ -0,0 +1,180 @@
+package com.pmihnea.bestpackage.core;
+
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Classical Knapsack algorithm implementation using a recursive approach with cached values.<br>
+ * The weights and prices are fixed-point values in hundredths, so the remaining capacities are exact
+ * and the same capacity reached through different products hits the same cache entry.
+ * The cache is a dense table indexed by the number of products and the remaining capacity that is allocated once,
+ * for the max number of products and the max capacity, and reused for every package:
+ * its entries are only valid when their stamp equals the stamp of the current package.
+ * The products are given as primitive arrays in hundredths, ordered as the ties are resolved:
+ * among the packages with the same price and weight the one with the lowest mask is found.
+ */
+public class KnapsackSolver {
+    private static final Logger LOG = Logger.getLogger("Knapsack");
+
+    private final int maxProducts;
+    private final int maxCapacity;
+
+    // cache of the best package of the first i products within a capacity, stored at index(i, capacity)
+    private final long[] cachedPrices;
+    private final long[] cachedWeights;
+    private final int[] stamps;
+    private int stamp;
+    private long exploredStates;
+    private StateListener stateListener;
+
+    // the products of the current package
+    private long[] weights;
+    private long[] prices;
+
+    /**
+     * @param maxProducts the max number of products of a package
+     * @param maxCapacity the max weight of a package in hundredths
+     */
+    public KnapsackSolver(int maxProducts, int maxCapacity) {
+        if (maxProducts < 0 || maxProducts >= Long.SIZE) {
+            throw new IllegalArgumentException("The max products should be between 0 and 63.");
+        }
+        if (maxCapacity < 0) {
+            throw new IllegalArgumentException("The max capacity should not be negative.");
+        }
+        this.maxProducts = maxProducts;
+        this.maxCapacity = maxCapacity;
+        int size = Math.multiplyExact(maxProducts + 1, maxCapacity + 1);
+        this.cachedPrices = new long[size];
+        this.cachedWeights = new long[size];
+        this.stamps = new int[size];
+    }
+
+    /**
+     * Finds the best package of the first <code>count</code> products within the max weight.
+     *
+     * @return the mask of the products of the best package, the bit i for the product i
+     */
+    public long solve(long[] weights, long[] prices, int count, long maxWeight) {
+        if (count > maxProducts) {
+            throw new IllegalArgumentException("Too many products: " + count);
+        }
+        if (maxWeight > maxCapacity) {
+            throw new IllegalArgumentException("Too big max weight: " + maxWeight);
+        }
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "Max weight=" + maxWeight);
+            LOG.log(Level.FINE, Arrays.toString(Arrays.copyOf(weights, count)));
+        }
+        exploredStates = 0;
+        if (maxWeight < 0) {
+            return 0;
+        }
+        nextStamp();
+        this.weights = weights;
+        this.prices = prices;
+        int capacity = (int) maxWeight;
+        findMax(count, capacity);
+
+        // follow the cached decisions from the last product down to the first one
+        long mask = 0;
+        for (int i = count; i > 0; i--) {
+            if (isIncluded(i, capacity)) {
+                mask |= 1L << (i - 1);
+                capacity -= (int) weights[i - 1];
+            }
+        }
+        this.weights = null;
+        this.prices = null;
+        return mask;
+    }
+
+    private void nextStamp() {
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            stamp = 0;
+        }
+        stamp++;
+    }
+
+    private int index(int i, int capacity) {
+        return i * (maxCapacity + 1) + capacity;
+    }
+
+    /**
+     * Computes and caches the best package of the first i products within the capacity.
+     */
+    private void findMax(int i, int capacity) {
+        int index = index(i, capacity);
+        if (stamps[index] == stamp) {
+            if (stateListener != null) {
+                stateListener.record(i, capacity, false);
+            }
+            return;
+        }
+        if (stateListener != null) {
+            stateListener.record(i, capacity, true);
+        }
+        // If we've gone through all the products, return
+        if (i == 0) {
+            cachedPrices[index] = 0;
+            cachedWeights[index] = 0;
+        } else {
+            findMax(i - 1, capacity);
+            int excludingIndex = index(i - 1, capacity);
+            long price = cachedPrices[excludingIndex];
+            long weight = cachedWeights[excludingIndex];
+            // If the product weight is too big to fill the remaining space, skip it
+            if (weights[i - 1] <= capacity) {
+                // Find the maximum of including and not including the current product
+                findMax(i - 1, capacity - (int) weights[i - 1]);
+                int includingIndex = index(i - 1, capacity - (int) weights[i - 1]);
+                long includingPrice = cachedPrices[includingIndex] + prices[i - 1];
+                long includingWeight = cachedWeights[includingIndex] + weights[i - 1];
+                if (isBetter(includingPrice, includingWeight, price, weight)) {
+                    price = includingPrice;
+                    weight = includingWeight;
+                }
+            }
+            cachedPrices[index] = price;
+            cachedWeights[index] = weight;
+        }
+        stamps[index] = stamp;
+        exploredStates++;
+    }
+
+    /**
+     * @return the number of states computed by the last {@link #solve(long[], long[], int, long)} call
+     */
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    /**
+     * Records the states by the number of products and the remaining capacity,
+     * the ones found in the cache are recorded as pruned, or nothing is recorded if the listener is null.
+     */
+    public void setStateListener(StateListener stateListener) {
+        this.stateListener = stateListener;
+    }
+
+    private boolean isIncluded(int i, int capacity) {
+        if (weights[i - 1] > capacity) {
+            return false;
+        }
+        int includingIndex = index(i - 1, capacity - (int) weights[i - 1]);
+        int excludingIndex = index(i - 1, capacity);
+        return isBetter(cachedPrices[includingIndex] + prices[i - 1], cachedWeights[includingIndex] + weights[i - 1],
+            cachedPrices[excludingIndex], cachedWeights[excludingIndex]);
+    }
+
+    /**
+     * Compares the package including the product i-1 with the one excluding it.
+     * In case of the same price and weight the excluding one is kept as it has the lower mask.
+     */
+    private static boolean isBetter(long includingPrice, long includingWeight, long excludingPrice, long excludingWeight) {
+        return includingPrice > excludingPrice
+            || (includingPrice == excludingPrice && includingWeight < excludingWeight);
+    }
+}
@@ -0,0 +1,29 @@
+package com.pmihnea.bestpackage.core;
+
+/**
+ * Thrown by {@link LineParser} for the first token of a line that cannot be parsed.
+ */
+public class LineFormatException extends RuntimeException {
+    private final String tokenName;
+    private final String token;
+
+    public LineFormatException(String tokenName, String token) {
+        super("The '" + tokenName + "' has an invalid value = '" + token + "'.");
+        this.tokenName = tokenName;
+        this.token = token;
+    }
+
+    /**
+     * @return the name of the token, one of the token names of {@link LineParser}
+     */
+    public String getTokenName() {
+        return tokenName;
+    }
+
+    /**
+     * @return the text of the token, or the whole line in case of a {@link LineParser#LINE_STRUCTURE} error
+     */
+    public String getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,187 @@
+package com.pmihnea.bestpackage.core;
+
+import java.util.Arrays;
+
+/**
+ * Parses the lines of package specifications such as:<br>
+ * <code>81 : (1,53.38,€45) (2,88.62,€98)</code><br>
+ * into primitive arrays reused from one line to the next, so a parser per thread parses without allocating:<ul>
+ * <li>first the structure of the whole line is checked: a token, spaces and ':', then at least one product made of
+ * spaces and <code>(number,weight,€price)</code>, where a token is any text without delimiters <code>' :(),€'</code>
+ * <li>then the tokens are parsed in the line order, the weights and prices directly into hundredths
+ * </ul>
+ * Only the structure and the number formats are checked, the values are validated by the caller
+ * to be able to give a precise error on them.
+ */
+public class LineParser {
+    // token names
+    public static final String LINE_STRUCTURE = "line structure";
+    public static final String MAX_WEIGHT = "max weight";
+    public static final String PRODUCT_NUMBER = "product number";
+    public static final String PRODUCT_WEIGHT = "product weight";
+    public static final String PRODUCT_PRICE = "product price";
+
+    private static final int INITIAL_PRODUCTS = 16;
+
+    // the start and end of the 3 tokens of every product
+    private int[] bounds = new int[6 * INITIAL_PRODUCTS];
+    private int[] numbers = new int[INITIAL_PRODUCTS];
+    private long[] weights = new long[INITIAL_PRODUCTS];
+    private long[] prices = new long[INITIAL_PRODUCTS];
+    private long maxWeight;
+    private int count;
+
+    /**
+     * Parses a line, the values of the previous one are overwritten.
+     *
+     * @throws LineFormatException for the structure of the line or the first token that cannot be parsed
+     */
+    public void parse(String line) {
+        count = 0;
+        int length = line.length();
+        int maxWeightEnd = tokenEnd(line, 0);
+        int position = expect(line, maxWeightEnd, ':', true);
+        if (maxWeightEnd == 0 || position < 0) {
+            throw new LineFormatException(LINE_STRUCTURE, line);
+        }
+        while (position < length) {
+            position = readProduct(line, position);
+            if (position < 0) {
+                throw new LineFormatException(LINE_STRUCTURE, line);
+            }
+        }
+        if (count == 0) {
+            throw new LineFormatException(LINE_STRUCTURE, line);
+        }
+
+        maxWeight = parseHundredths(line, 0, maxWeightEnd, MAX_WEIGHT);
+        for (int i = 0; i < count; i++) {
+            int b = 6 * i;
+            try {
+                numbers[i] = Integer.parseInt(line, bounds[b], bounds[b + 1], 10);
+            } catch (NumberFormatException e) {
+                throw new LineFormatException(PRODUCT_NUMBER, line.substring(bounds[b], bounds[b + 1]));
+            }
+            weights[i] = parseHundredths(line, bounds[b + 2], bounds[b + 3], PRODUCT_WEIGHT);
+            prices[i] = parseHundredths(line, bounds[b + 4], bounds[b + 5], PRODUCT_PRICE);
+        }
+    }
+
+    /**
+     * Checks the structure of one product and records the bounds of its tokens.
+     *
+     * @return the position after the product or -1 if the product is not well formed
+     */
+    private int readProduct(String line, int position) {
+        position = expect(line, position, '(', true);
+        if (position < 0) {
+            return -1;
+        }
+        int numberStart = position;
+        int numberEnd = tokenEnd(line, numberStart);
+        int weightStart = expect(line, numberEnd, ',', false);
+        if (numberEnd == numberStart || weightStart < 0) {
+            return -1;
+        }
+        int weightEnd = tokenEnd(line, weightStart);
+        int priceStart = expect(line, expect(line, weightEnd, ',', false), '€', false);
+        if (weightEnd == weightStart || priceStart < 0) {
+            return -1;
+        }
+        int priceEnd = tokenEnd(line, priceStart);
+        int end = expect(line, priceEnd, ')', false);
+        if (priceEnd == priceStart || end < 0) {
+            return -1;
+        }
+        ensureCapacity(count + 1);
+        int b = 6 * count;
+        bounds[b] = numberStart;
+        bounds[b + 1] = numberEnd;
+        bounds[b + 2] = weightStart;
+        bounds[b + 3] = weightEnd;
+        bounds[b + 4] = priceStart;
+        bounds[b + 5] = priceEnd;
+        count++;
+        return end;
+    }
+
+    /**
+     * @return the position after the character, preceded by at least one space if required, or -1 if it is not there
+     */
+    private static int expect(String line, int position, char c, boolean afterSpaces) {
+        if (position < 0) {
+            return -1;
+        }
+        if (afterSpaces) {
+            int spacesStart = position;
+            while (position < line.length() && line.charAt(position) == ' ') {
+                position++;
+            }
+            if (position == spacesStart) {
+                return -1;
+            }
+        }
+        return position < line.length() && line.charAt(position) == c ? position + 1 : -1;
+    }
+
+    private static int tokenEnd(String line, int position) {
+        while (position < line.length() && !isDelimiter(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ' ' || c == ':' || c == '(' || c == ')' || c == ',' || c == '€';
+    }
+
+    private static long parseHundredths(String line, int start, int end, String tokenName) {
+        try {
+            return Hundredths.parse(line, start, end);
+        } catch (NumberFormatException e) {
+            throw new LineFormatException(tokenName, line.substring(start, end));
+        }
+    }
+
+    private void ensureCapacity(int products) {
+        if (products > numbers.length) {
+            int capacity = Math.max(products, 2 * numbers.length);
+            bounds = Arrays.copyOf(bounds, 6 * capacity);
+            numbers = Arrays.copyOf(numbers, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+    }
+
+    /**
+     * @return the max weight of the last line in hundredths
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return the number of products of the last line
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getNumber(int product) {
+        return numbers[product];
+    }
+
+    /**
+     * @return the weight of the product in hundredths
+     */
+    public long getWeight(int product) {
+        return weights[product];
+    }
+
+    /**
+     * @return the price of the product in hundredths
+     */
+    public long getPrice(int product) {
+        return prices[product];
+    }
+}
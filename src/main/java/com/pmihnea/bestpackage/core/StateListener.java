@@ -0,0 +1,13 @@
+package com.pmihnea.bestpackage.core;
+
+/**
+ * Receives the states explored by a solver, e.g. to trace where the search spends its time.
+ */
+public interface StateListener {
+    /**
+     * @param product  the index of the product of the state
+     * @param capacity the remaining capacity of the state in hundredths
+     * @param expanded true if the state was expanded, false if it was pruned
+     */
+    void record(int product, long capacity, boolean expanded);
+}
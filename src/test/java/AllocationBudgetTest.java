@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Fails the build when the bytes allocated per line by the parser or by a strategy exceed their budget,
+ * so the allocation regressions are caught before they ship.<br>
+ * Every stage is first warmed up, so the JIT compiler has removed the allocations it can,
+ * and then the bytes allocated by the current thread are measured over the same lines several times,
+ * keeping the lowest average to ignore the rounds disturbed by a late compilation.
+ * The budgets in bytes per line are in <code>allocationBudgets.properties</code>, a stage without a budget is not checked.
+ * A budget that became too large after an optimization should be lowered to catch the next regression.
+ */
+public class AllocationBudgetTest {
+    private static final int LINES = 1000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 5;
+
+    private static com.sun.management.ThreadMXBean threadMXBean;
+    private static Properties budgets;
+    private static List<String> lines;
+    private static List<PackageSpecification> packageSpecifications;
+
+    @BeforeAll
+    public static void setUp() throws IOException {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "The thread allocations cannot be measured.");
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        Assumptions.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "The thread allocations cannot be measured.");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("allocationBudgets.properties")) {
+            budgets.load(in);
+        }
+        StringWriter writer = new StringWriter();
+        new InputGenerator().invalidRate(0).write(writer, LINES);
+        lines = List.of(writer.toString().split("\n"));
+        packageSpecifications = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            packageSpecifications.add(new PackageSpecification(lines.get(i), i));
+        }
+    }
+
+    @Test
+    public void testParserBudget() {
+        assertWithinBudget("parser", () -> {
+            for (int i = 0; i < lines.size(); i++) {
+                new PackageSpecification(lines.get(i), i);
+            }
+        });
+    }
+
+    @ParameterizedTest
+    @EnumSource(PackageSpecification.FindBestPackageStrategy.class)
+    public void testStrategyBudget(PackageSpecification.FindBestPackageStrategy strategy) {
+        packageSpecifications.forEach(packageSpecification -> packageSpecification.setFindBestPackageStrategy(strategy));
+        assertWithinBudget(strategy.name(), () -> packageSpecifications.forEach(PackageSpecification::findBestPackage));
+    }
+
+    private static void assertWithinBudget(String stage, Runnable round) {
+        String budget = budgets.getProperty(stage);
+        Assumptions.assumeTrue(budget != null, "No allocation budget for " + stage);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long minBytes = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long startBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+            round.run();
+            minBytes = Math.min(minBytes, threadMXBean.getThreadAllocatedBytes(threadId) - startBytes);
+        }
+        long bytesPerLine = minBytes / LINES;
+        Assertions.assertTrue(bytesPerLine <= Long.parseLong(budget),
+            stage + " allocates " + bytesPerLine + " bytes per line, over its budget of " + budget + " bytes.");
+    }
+}
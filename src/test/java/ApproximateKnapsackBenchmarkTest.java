@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+// Measures the approximate packages of a large instance against the exact one for several epsilons, run with: mvn test -Pbenchmark
+// The exact time grows with the max weight while the approximate time only depends on the products and epsilon
+@Tag("benchmark")
+public class ApproximateKnapsackBenchmarkTest {
+    private static final int PRODUCTS = 500;
+    private static final int MAX_WEIGHT = 1_000_000;
+    private static final double[] EPSILONS = {0.1, 0.05, 0.01, 0.001};
+
+    @Test
+    public void benchmarkEpsilon() {
+        Random random = new Random(42);
+        long[] weights = new long[PRODUCTS];
+        long[] prices = new long[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            weights[i] = 1 + random.nextInt(MAX_WEIGHT / 50);
+            prices[i] = random.nextInt(10_000);
+        }
+        LargeInstanceKnapsack exactKnapsack = new LargeInstanceKnapsack();
+        // warm up
+        exactKnapsack.solve(weights, prices, PRODUCTS, MAX_WEIGHT);
+        long startTS = System.nanoTime();
+        long bestPrice = price(exactKnapsack.solve(weights, prices, PRODUCTS, MAX_WEIGHT), prices);
+        long exactNanos = System.nanoTime() - startTS;
+        System.out.printf("%d products, max weight %d%n", PRODUCTS, MAX_WEIGHT);
+        System.out.printf("exact           %8.1f ms  price %d%n", exactNanos / 1e6, bestPrice);
+
+        ApproximateKnapsack knapsack = new ApproximateKnapsack();
+        for (double epsilon : EPSILONS) {
+            knapsack.solve(weights, prices, PRODUCTS, MAX_WEIGHT, epsilon);
+            startTS = System.nanoTime();
+            long price = price(knapsack.solve(weights, prices, PRODUCTS, MAX_WEIGHT, epsilon), prices);
+            long nanos = System.nanoTime() - startTS;
+            Assertions.assertTrue(price >= (1 - epsilon) * bestPrice, "epsilon " + epsilon + " lost too much");
+            System.out.printf("epsilon %-7s %8.1f ms  price %d (%.4f of the best)  speedup %.1f%n",
+                epsilon, nanos / 1e6, price, (double) price / bestPrice, (double) exactNanos / nanos);
+        }
+    }
+
+    private static long price(BitSet selected, long[] prices) {
+        return selected.stream().mapToLong(i -> prices[i]).sum();
+    }
+}
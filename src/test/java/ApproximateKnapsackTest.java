@@ -0,0 +1,108 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+public class ApproximateKnapsackTest {
+    private final ApproximateKnapsack knapsack = new ApproximateKnapsack();
+
+    @Test
+    public void testFindMax() {
+        long[] weights = {1000, 1500, 800};
+        long[] prices = {2000, 2200, 2500};
+        Assertions.assertEquals(BitSet.valueOf(new long[]{0b110}), knapsack.solve(weights, prices, 3, 3200, 0.01));
+    }
+
+    @Test
+    public void testFindMaxEmptyProducts() {
+        Assertions.assertTrue(knapsack.solve(new long[0], new long[0], 0, 3200, 0.1).isEmpty());
+        Assertions.assertTrue(knapsack.solve(new long[]{100}, new long[]{100}, 1, -1, 0.1).isEmpty());
+        // the products without price are not taken
+        Assertions.assertTrue(knapsack.solve(new long[]{100, 0}, new long[]{0, 0}, 2, 3200, 0.1).isEmpty());
+        Assertions.assertEquals(BitSet.valueOf(new long[]{0b1}), knapsack.solve(new long[]{100}, new long[]{1}, 1, 100, 0.1));
+    }
+
+    @Test
+    public void testInvalidEpsilon() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> knapsack.solve(new long[0], new long[0], 0, 100, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> knapsack.solve(new long[0], new long[0], 0, 100, 1));
+    }
+
+    @Test
+    public void testAccuracyComparedToKnapsack() {
+        Knapsack reference = new Knapsack(15, 10000);
+        Random random = new Random(23);
+        long[] weights = new long[15];
+        long[] prices = new long[15];
+        for (double epsilon : new double[]{0.5, 0.2, 0.05, 0.01}) {
+            for (int round = 0; round < 1000; round++) {
+                int count = random.nextInt(16);
+                for (int i = 0; i < count; i++) {
+                    weights[i] = random.nextInt(10001);
+                    prices[i] = random.nextInt(10001);
+                }
+                long maxWeight = random.nextInt(10001);
+                long bestPrice = price(BitSet.valueOf(new long[]{reference.solve(weights, prices, count, maxWeight)}), prices);
+                BitSet selected = knapsack.solve(weights, prices, count, maxWeight, epsilon);
+                Assertions.assertTrue(weight(selected, weights) <= maxWeight, "round " + round);
+                Assertions.assertTrue(price(selected, prices) >= (1 - epsilon) * bestPrice,
+                    "epsilon " + epsilon + " round " + round + ": " + price(selected, prices) + " < " + bestPrice);
+            }
+        }
+    }
+
+    @Test
+    public void testAccuracyWithZeroWeightsAndPrices() {
+        // the products without weight come first in the greedy bound, the ones without price are never taken
+        Knapsack reference = new Knapsack(15, 10000);
+        Random random = new Random(31);
+        long[] weights = new long[15];
+        long[] prices = new long[15];
+        for (int round = 0; round < 1000; round++) {
+            int count = random.nextInt(16);
+            for (int i = 0; i < count; i++) {
+                weights[i] = random.nextInt(4) == 0 ? 0 : random.nextInt(10001);
+                prices[i] = random.nextInt(4) == 0 ? 0 : random.nextInt(10001);
+            }
+            long maxWeight = random.nextInt(10001);
+            long bestPrice = price(BitSet.valueOf(new long[]{reference.solve(weights, prices, count, maxWeight)}), prices);
+            BitSet selected = knapsack.solve(weights, prices, count, maxWeight, 0.01);
+            Assertions.assertTrue(weight(selected, weights) <= maxWeight, "round " + round);
+            Assertions.assertTrue(price(selected, prices) >= 0.99 * bestPrice, "round " + round);
+        }
+        Assertions.assertEquals(BitSet.valueOf(new long[]{0b101}), knapsack.solve(new long[]{0, 1000, 0}, new long[]{500, 100, 300}, 3, 0, 0.01));
+    }
+
+    @Test
+    public void testAccuracyOnManyProducts() {
+        LargeInstanceKnapsack reference = new LargeInstanceKnapsack();
+        Random random = new Random(29);
+        int count = 500;
+        long[] weights = new long[count];
+        long[] prices = new long[count];
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < count; i++) {
+                weights[i] = 1 + random.nextInt(10000);
+                // prices correlated with the weights, the hard instances for the greedy packages
+                prices[i] = weights[i] + random.nextInt(1000);
+            }
+            long maxWeight = 100_000;
+            long bestPrice = price(reference.solve(weights, prices, count, maxWeight), prices);
+            for (double epsilon : new double[]{0.1, 0.01}) {
+                BitSet selected = knapsack.solve(weights, prices, count, maxWeight, epsilon);
+                Assertions.assertTrue(weight(selected, weights) <= maxWeight);
+                Assertions.assertTrue(price(selected, prices) >= (1 - epsilon) * bestPrice,
+                    "epsilon " + epsilon + ": " + price(selected, prices) + " < " + bestPrice);
+            }
+        }
+    }
+
+    private static long price(BitSet selected, long[] prices) {
+        return selected.stream().mapToLong(i -> prices[i]).sum();
+    }
+
+    private static long weight(BitSet selected, long[] weights) {
+        return selected.stream().mapToLong(i -> weights[i]).sum();
+    }
+}
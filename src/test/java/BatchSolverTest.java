@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class BatchSolverTest {
+    private static final int PROBLEMS = 1000;
+
+    @ParameterizedTest
+    @EnumSource(value = PackageSpecification.FindBestPackageStrategy.class, names = {"OPTIMIZED", "BRUTE_FORCE", "LARGE_INSTANCE", "APPROXIMATE", "ADAPTIVE"},
+        mode = EnumSource.Mode.EXCLUDE)
+    public void testSameMasksAsThePackageSpecifications(PackageSpecification.FindBestPackageStrategy strategy) {
+        assertSameMasksAsThePackageSpecifications(strategy, 1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = PackageSpecification.FindBestPackageStrategy.class, names = {"OPTIMIZED", "BRUTE_FORCE", "LARGE_INSTANCE", "APPROXIMATE", "ADAPTIVE"},
+        mode = EnumSource.Mode.EXCLUDE)
+    public void testSameMasksWithZeroWeightsAndPrices(PackageSpecification.FindBestPackageStrategy strategy) {
+        assertSameMasksAsThePackageSpecifications(strategy, 0);
+    }
+
+    /**
+     * @param minWeight the weight of the lightest products in units, the prices start from 0
+     */
+    private static void assertSameMasksAsThePackageSpecifications(PackageSpecification.FindBestPackageStrategy strategy, int minWeight) {
+        Random random = new Random(11);
+        int[] offsets = new int[PROBLEMS + 1];
+        long[] capacities = new long[PROBLEMS];
+        for (int p = 0; p < PROBLEMS; p++) {
+            offsets[p + 1] = offsets[p] + 1 + random.nextInt(15);
+            capacities[p] = random.nextInt(10001);
+        }
+        long[] weights = new long[offsets[PROBLEMS]];
+        long[] prices = new long[offsets[PROBLEMS]];
+        for (int i = 0; i < weights.length; i++) {
+            // few distinct values so there are many ties
+            weights[i] = 100 * (minWeight + random.nextInt(31 - minWeight));
+            prices[i] = 100 * random.nextInt(20);
+        }
+        int[] masks = new int[PROBLEMS];
+        new BatchSolver(strategy).solve(offsets, weights, prices, capacities, masks);
+
+        for (int p = 0; p < PROBLEMS; p++) {
+            Set<Product> products = new HashSet<>();
+            for (int i = offsets[p]; i < offsets[p + 1]; i++) {
+                products.add(new Product(i - offsets[p] + 1, weights[i] / 100.0, prices[i] / 100.0));
+            }
+            PackageSpecification packageSpecification = new PackageSpecification(capacities[p] / 100.0, products);
+            int expectedMask = 0;
+            for (Product product : packageSpecification.findBestPackage().orElseThrow().getProducts()) {
+                expectedMask |= 1 << (product.getNumber() - 1);
+            }
+            Assertions.assertEquals(expectedMask, masks[p], "problem " + p);
+        }
+    }
+
+    @Test
+    public void testInvalidProblems() {
+        BatchSolver solver = new BatchSolver();
+        int[] masks = new int[1];
+        // too many products
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> solver.solve(new int[]{0, 16}, new long[16], new long[16], new long[]{100}, masks));
+        // too big max weight
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> solver.solve(new int[]{0, 1}, new long[]{100}, new long[]{100}, new long[]{10001}, masks));
+        // negative price
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> solver.solve(new int[]{0, 1}, new long[]{100}, new long[]{-1}, new long[]{100}, masks));
+        // offsets not covering the products
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> solver.solve(new int[]{0, 1}, new long[2], new long[2], new long[]{100}, masks));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new BatchSolver(PackageSpecification.FindBestPackageStrategy.BRUTE_FORCE));
+    }
+
+    @Test
+    public void testEmptyProblems() {
+        new BatchSolver().solve(new int[]{0}, new long[0], new long[0], new long[0], new int[0]);
+        int[] masks = {-1, -1};
+        new BatchSolver().solve(new int[]{0, 0, 1}, new long[]{100}, new long[]{100}, new long[]{100, 100}, masks);
+        Assertions.assertArrayEquals(new int[]{0, 1}, masks);
+    }
+}
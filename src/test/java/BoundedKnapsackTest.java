@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class BoundedKnapsackTest {
+    private final BoundedKnapsack knapsack = new BoundedKnapsack(15, 10000);
+
+    @Test
+    public void testFindMax() {
+        long[] weights = {1000, 1500, 800};
+        long[] prices = {2000, 2200, 2500};
+        Assertions.assertEquals(0b110, knapsack.solve(weights, prices, 3, 3200));
+    }
+
+    @Test
+    public void testFindMaxTakesTheLowestNumbersOfATheSameType() {
+        // the products 0, 2 and 3 are identical, two of them fit
+        long[] weights = {1000, 1700, 1000, 1000};
+        long[] prices = {2000, 1000, 2000, 2000};
+        Assertions.assertEquals(0b0101, knapsack.solve(weights, prices, 4, 2500));
+    }
+
+    @Test
+    public void testFindMaxLowestMaskAcrossTypes() {
+        // {0, 1}, {0, 3}, {1, 3} and {2, 3} have the same price and weight, the lowest mask is {0, 1}
+        long[] weights = {100, 100, 200, 100};
+        long[] prices = {100, 100, 200, 100};
+        Assertions.assertEquals(0b0011, knapsack.solve(weights, prices, 4, 200));
+    }
+
+    @Test
+    public void testFindMaxZeroWeights() {
+        long[] weights = {0, 1000, 0, 0};
+        long[] prices = {500, 2000, 0, 500};
+        Assertions.assertEquals(0b1011, knapsack.solve(weights, prices, 4, 1000));
+        Assertions.assertEquals(0b1001, knapsack.solve(weights, prices, 4, 0));
+    }
+
+    @Test
+    public void testSameResultAsKnapsack() {
+        Knapsack reference = new Knapsack(15, 10000);
+        Random random = new Random(5);
+        long[] weights = new long[15];
+        long[] prices = new long[15];
+        for (int round = 0; round < 500; round++) {
+            int count = random.nextInt(16);
+            for (int i = 0; i < count; i++) {
+                // few distinct values to have many identical products and ties
+                weights[i] = random.nextInt(4) * 1025;
+                prices[i] = random.nextInt(3) * 700;
+            }
+            long maxWeight = random.nextInt(10001);
+            Assertions.assertEquals(reference.solve(weights, prices, count, maxWeight),
+                knapsack.solve(weights, prices, count, maxWeight), "round " + round);
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        BoundedKnapsack small = new BoundedKnapsack(2, 100);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> small.solve(new long[3], new long[3], 3, 100));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> small.solve(new long[1], new long[1], 1, 101));
+    }
+}
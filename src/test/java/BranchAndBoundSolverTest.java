@@ -0,0 +1,102 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class BranchAndBoundSolverTest {
+    private final BranchAndBoundSolver solver = new BranchAndBoundSolver(15);
+
+    @Test
+    public void testFindMax() {
+        long[] weights = {1000, 1500, 800};
+        long[] prices = {2000, 2200, 2500};
+        Assertions.assertEquals(0b110, solver.solve(weights, prices, 3, 3200));
+        Assertions.assertTrue(solver.isOptimal());
+    }
+
+    @Test
+    public void testFindMaxBetterThanGreedy() {
+        // the greedy package takes the product 0 with the best price per weight, then nothing else fits
+        long[] weights = {600, 500, 500};
+        long[] prices = {1300, 1000, 1000};
+        Assertions.assertEquals(0b110, solver.solve(weights, prices, 3, 1000));
+    }
+
+    @Test
+    public void testFindMaxSamePriceAndWeight() {
+        // {0, 3} and {1, 2} have the same price and weight, the lower mask is chosen
+        long[] weights = {1000, 1000, 1000, 1000};
+        long[] prices = {2000, 2000, 2000, 2000};
+        Assertions.assertEquals(0b0011, solver.solve(weights, prices, 4, 2000));
+    }
+
+    @Test
+    public void testFindMaxZeroWeights() {
+        long[] weights = {0, 1000, 0};
+        long[] prices = {0, 2000, 500};
+        Assertions.assertEquals(0b110, solver.solve(weights, prices, 3, 1000));
+        Assertions.assertEquals(0b100, solver.solve(weights, prices, 3, 0));
+    }
+
+    @Test
+    public void testFindMaxZeroWeightAndPrice() {
+        // the product 4 without weight and price used to stop the price per weight sort before the product 7
+        long[] weights = {1269, 1330, 0, 104, 0, 902, 1509, 1363};
+        long[] prices = {6100, 2500, 4200, 0, 0, 0, 2500, 7500};
+        Assertions.assertEquals(0b10000100, solver.solve(weights, prices, 8, 2000));
+    }
+
+    @Test
+    public void testSameResultAsKnapsackWithZeroWeightsAndPrices() {
+        Knapsack knapsack = new Knapsack(15, 10000);
+        Random random = new Random(5);
+        long[] weights = new long[15];
+        long[] prices = new long[15];
+        for (int round = 0; round < 2000; round++) {
+            int count = random.nextInt(16);
+            for (int i = 0; i < count; i++) {
+                weights[i] = random.nextInt(4) == 0 ? 0 : random.nextInt(2000);
+                prices[i] = random.nextInt(4) == 0 ? 0 : random.nextInt(10000);
+            }
+            long maxWeight = random.nextInt(10001);
+            Assertions.assertEquals(knapsack.solve(weights, prices, count, maxWeight),
+                solver.solve(weights, prices, count, maxWeight), "round " + round);
+        }
+    }
+
+    @Test
+    public void testExpiredDeadlineReturnsTheGreedyPackage() {
+        long[] weights = {600, 500, 500};
+        long[] prices = {1300, 1000, 1000};
+        Assertions.assertEquals(0b001, solver.solve(weights, prices, 3, 1000, System.nanoTime()));
+        Assertions.assertFalse(solver.isOptimal());
+
+        Assertions.assertEquals(0b110, solver.solve(weights, prices, 3, 1000, System.nanoTime() + 60_000_000_000L));
+        Assertions.assertTrue(solver.isOptimal());
+    }
+
+    @Test
+    public void testSameResultAsKnapsack() {
+        Knapsack knapsack = new Knapsack(15, 10000);
+        Random random = new Random(3);
+        long[] weights = new long[15];
+        long[] prices = new long[15];
+        for (int round = 0; round < 500; round++) {
+            int count = random.nextInt(16);
+            for (int i = 0; i < count; i++) {
+                // few distinct values to have many ties
+                weights[i] = (1 + random.nextInt(20)) * 250;
+                prices[i] = random.nextInt(10) * 500;
+            }
+            long maxWeight = random.nextInt(10001);
+            Assertions.assertEquals(knapsack.solve(weights, prices, count, maxWeight),
+                solver.solve(weights, prices, count, maxWeight), "round " + round);
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BranchAndBoundSolver(64));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BranchAndBoundSolver(2).solve(new long[3], new long[3], 3, 100));
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class CombinationsEnumeratorTest {
+    @Test
+    public void testCombinationsOf3() {
+        List<Long> masks = new ArrayList<>();
+        long combinations = new CombinationsEnumerator(3).enumerate(new long[3], new long[3], 3,
+            (mask, weight, price, i) -> true,
+            (mask, weight, price) -> masks.add(mask));
+        Assertions.assertEquals(8, combinations);
+        // depth first: every combination is followed by its extensions
+        Assertions.assertEquals(List.of(0L, 1L, 3L, 7L, 5L, 2L, 6L, 4L), masks);
+    }
+
+    @Test
+    public void testRunningTotals() {
+        long[] weights = {1, 2, 4, 8};
+        long[] prices = {10, 20, 40, 80};
+        new CombinationsEnumerator(4).enumerate(weights, prices, 4,
+            (mask, weight, price, i) -> {
+                Assertions.assertEquals(mask, weight);
+                Assertions.assertEquals(10 * mask, price);
+                return weight + weights[i] <= 11;
+            },
+            (mask, weight, price) -> {
+                Assertions.assertEquals(mask, weight);
+                Assertions.assertEquals(10 * mask, price);
+                Assertions.assertTrue(weight <= 11);
+            });
+    }
+
+    @Test
+    public void testSamePruningAsCombinationsStream() {
+        Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            int n = 1 + random.nextInt(12);
+            long[] weights = random.longs(n, 0, 100).toArray();
+            long[] prices = random.longs(n, 0, 100).toArray();
+            long maxWeight = random.nextInt(300);
+
+            List<String> expected = new CombinationsStream(n,
+                (bitSet, i) -> bitSet.stream().mapToLong(index -> weights[index]).sum() + weights[i] <= maxWeight)
+                .toBitSetStream().map(BitSet::toString).collect(Collectors.toList());
+            List<String> actual = new ArrayList<>();
+            new CombinationsEnumerator(15).enumerate(weights, prices, n,
+                (mask, weight, price, i) -> weight + weights[i] <= maxWeight,
+                (mask, weight, price) -> actual.add(BitSet.valueOf(new long[]{mask}).toString()));
+            Assertions.assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testManyCombinations() {
+        CombinationsEnumerator enumerator = new CombinationsEnumerator(63);
+        Assertions.assertEquals(32768, enumerator.enumerate(new long[15], new long[15], 15,
+            (mask, weight, price, i) -> true, (mask, weight, price) -> {
+            }));
+        long[] weights = new long[30];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = i;
+        }
+        Assertions.assertEquals(274, enumerator.enumerate(weights, new long[30], 30,
+            (mask, weight, price, i) -> weight + i <= 15, (mask, weight, price) -> {
+            }));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CombinationsEnumerator(64));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CombinationsEnumerator(3)
+            .enumerate(new long[4], new long[4], 4, (mask, weight, price, i) -> true, (mask, weight, price) -> {
+            }));
+    }
+}
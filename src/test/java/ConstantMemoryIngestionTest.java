@@ -0,0 +1,84 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Checks that the memory used by FindBestPackage does not grow with the input file, run with: mvn test -Pbenchmark
+// A file of several GB is processed in a separate JVM with a heap much smaller than the file,
+// the size can be changed with -Dbenchmark.bytes=<bytes> and the heap with -Dbenchmark.xmx=<size>
+@Tag("benchmark")
+public class ConstantMemoryIngestionTest {
+    private static final long BYTES = Long.getLong("benchmark.bytes", 2L * 1024 * 1024 * 1024);
+    private static final String XMX = System.getProperty("benchmark.xmx", "16m");
+    private static final int CHUNK_LINES = 10_000;
+
+    @Test
+    public void testBigFileWithSmallHeap(@TempDir Path tempDir) throws IOException, InterruptedException {
+        Path input = tempDir.resolve("input.txt");
+        long lines = writeInput(tempDir, input);
+        Path output = tempDir.resolve("output.txt");
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + XMX);
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            command.add("--add-modules");
+            command.add("jdk.incubator.vector");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(FindBestPackage.class.getName());
+        command.add("--output");
+        command.add(output.toString());
+        command.add(input.toString());
+
+        long startTS = System.currentTimeMillis();
+        Process process = new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+        Assertions.assertTrue(process.waitFor(2, TimeUnit.HOURS));
+        // an OutOfMemoryError ends the JVM with a non-zero exit value
+        Assertions.assertEquals(0, process.exitValue());
+        try (Stream<String> outputLines = Files.lines(output, StandardCharsets.UTF_8)) {
+            Assertions.assertEquals(lines, outputLines.count());
+        }
+        System.out.println("ConstantMemoryIngestionTest processed " + Files.size(input) + " bytes with -Xmx" + XMX
+            + " in " + (System.currentTimeMillis() - startTS) + " ms.");
+    }
+
+    /**
+     * Writes the generated lines of one chunk again and again until the file reaches the size.
+     *
+     * @return the number of lines
+     */
+    private static long writeInput(Path tempDir, Path input) throws IOException {
+        Path chunk = tempDir.resolve("chunk.txt");
+        new InputGenerator().invalidRate(0).write(chunk, CHUNK_LINES);
+        long lines = 0;
+        try (FileChannel chunkChannel = FileChannel.open(chunk, StandardOpenOption.READ);
+             FileChannel inputChannel = FileChannel.open(input, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long chunkSize = chunkChannel.size();
+            while (inputChannel.size() < BYTES) {
+                long position = 0;
+                while (position < chunkSize) {
+                    position += chunkChannel.transferTo(position, chunkSize - position, inputChannel);
+                }
+                lines += CHUNK_LINES;
+            }
+        }
+        Files.delete(chunk);
+        return lines;
+    }
+}
@@ -3,6 +3,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
@@ -12,8 +13,13 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 // Checks that no exceptions occur when executing the main program
 public class FindBestPackageTest {
@@ -95,7 +101,7 @@ public class FindBestPackageTest {
     @Test
     public void testWithNoFile() {
         String[] args = {};
-        FindBestPackage.main(args);
+        Assertions.assertEquals(FindBestPackage.EXIT_INVALID_ARGUMENTS, FindBestPackage.execute(args));
         Assertions.assertLinesMatch(List.of("Invalid command arguments.*"),
             testErrToList());
 
@@ -104,11 +110,155 @@ public class FindBestPackageTest {
     @Test
     public void testWithNotExistingFile() {
         String[] args = {"not-existing-file.txt"};
-        FindBestPackage.main(args);
+        Assertions.assertEquals(FindBestPackage.EXIT_FAILURE, FindBestPackage.execute(args));
         Assertions.assertLinesMatch(List.of("java.nio.file.NoSuchFileException.*"),
             testErrToList());
     }
 
+    @Test
+    public void testWithInvalidOptions() {
+        Assertions.assertEquals(FindBestPackage.EXIT_INVALID_ARGUMENTS, FindBestPackage.execute(new String[]{"--resume", "input.txt"}));
+        Assertions.assertEquals(FindBestPackage.EXIT_INVALID_ARGUMENTS, FindBestPackage.execute(new String[]{"--checkpoint", "checkpoint.properties", "input.txt"}));
+        Assertions.assertEquals(FindBestPackage.EXIT_INVALID_ARGUMENTS, FindBestPackage.execute(new String[]{"--unknown", "input.txt"}));
+        Assertions.assertEquals(FindBestPackage.EXIT_INVALID_ARGUMENTS, FindBestPackage.execute(new String[]{"--time-budget", "10", "input.txt"}));
+        Assertions.assertEquals(FindBestPackage.EXIT_INVALID_ARGUMENTS, FindBestPackage.execute(new String[]{"--max-weight", "1.234", "input.txt"}));
+        Assertions.assertEquals(FindBestPackage.EXIT_INVALID_ARGUMENTS, FindBestPackage.execute(new String[]{"--epsilon", "0.1", "input.txt"}));
+        Assertions.assertEquals(FindBestPackage.EXIT_INVALID_ARGUMENTS, FindBestPackage.execute(new String[]{"--strategy", "APPROXIMATE", "--epsilon", "1", "input.txt"}));
+        Assertions.assertEquals(FindBestPackage.EXIT_INVALID_ARGUMENTS, FindBestPackage.execute(new String[]{"--adaptive-table", "table.properties", "input.txt"}));
+        Assertions.assertEquals(FindBestPackage.EXIT_INVALID_ARGUMENTS, FindBestPackage.execute(new String[]{"--large-instance-threads", "0", "input.txt"}));
+        Assertions.assertLinesMatch(List.of(
+            "Invalid command arguments. The --resume option requires a --checkpoint file. Usage: .*",
+            "Invalid command arguments. The --checkpoint option requires an --output file. Usage: .*",
+            "Invalid command arguments. Unknown option '--unknown'. Usage: .*",
+            "Invalid command arguments. The --time-budget option requires the BRANCH_AND_BOUND strategy. Usage: .*",
+            "Invalid command arguments. The option '--max-weight' requires a number with at most 2 decimals. Usage: .*",
+            "Invalid command arguments. The --epsilon option requires the APPROXIMATE strategy. Usage: .*",
+            "Invalid command arguments. The option '--epsilon' requires a value between 0 and 1. Usage: .*",
+            "Invalid command arguments. The --adaptive-table option requires the ADAPTIVE strategy. Usage: .*",
+            "Invalid command arguments. The option '--large-instance-threads' requires a positive value. Usage: .*"),
+            testErrToList());
+    }
+
+    @Test
+    public void testWithOutputFile(@TempDir Path tempDir) throws IOException {
+        Path output = tempDir.resolve("output.txt");
+        String path = getPath(getClass().getResource("sampleInput.txt"));
+        FindBestPackage.main(new String[]{"--output", output.toString(), path});
+        Assertions.assertEquals(List.of("4", "-", "2,7", "8,9"), Files.readAllLines(output, StandardCharsets.UTF_8));
+        Assertions.assertTrue(testOutToList().isEmpty());
+    }
+
+    @Test
+    public void testWithTimeBudget() {
+        String path = getPath(getClass().getResource("sampleInput.txt"));
+        FindBestPackage.main(new String[]{"--strategy", "BRANCH_AND_BOUND", "--time-budget", "60000", path});
+        Assertions.assertEquals(List.of("4", "-", "2,7", "8,9"), testOutToList());
+        Assertions.assertTrue(testErrToList().isEmpty());
+    }
+
+    @Test
+    public void testWithEpsilon() {
+        String path = getPath(getClass().getResource("sampleInput.txt"));
+        FindBestPackage.main(new String[]{"--strategy", "APPROXIMATE", "--epsilon", "0.001", path});
+        Assertions.assertEquals(List.of("4", "-", "2,7", "8,9"), testOutToList());
+        Assertions.assertTrue(testErrToList().isEmpty());
+    }
+
+    @Test
+    public void testWithAdaptiveTable(@TempDir Path tempDir) throws IOException {
+        Path table = tempDir.resolve("table.properties");
+        String path = getPath(getClass().getResource("sampleInput.txt"));
+        String[] args = {"--strategy", "ADAPTIVE", "--adaptive-table", table.toString(), path};
+        FindBestPackage.main(args);
+        Assertions.assertTrue(Files.exists(table));
+        // the next run starts from the exported table
+        FindBestPackage.main(args);
+        Assertions.assertEquals(List.of("4", "-", "2,7", "8,9", "4", "-", "2,7", "8,9"), testOutToList());
+        Assertions.assertTrue(testErrToList().isEmpty());
+    }
+
+    @Test
+    public void testWithLargeLimits(@TempDir Path tempDir) throws IOException {
+        assertLargeLimits(tempDir);
+    }
+
+    @Test
+    public void testWithLargeInstanceThreads(@TempDir Path tempDir) throws IOException {
+        // the row of the max weight 1000 has more capacities than the parallel threshold
+        assertLargeLimits(tempDir, "--large-instance-threads", "4");
+    }
+
+    private void assertLargeLimits(Path tempDir, String... options) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        // 1000 products, all of them fit except the heaviest one
+        StringBuilder line = new StringBuilder("1000 :");
+        for (int number = 1; number <= 1000; number++) {
+            line.append(" (").append(number).append(",").append(number == 1000 ? "999" : "1").append(",€1)");
+        }
+        Files.write(input, List.of(line.toString(), "81 : (1,53.38,€45) (2,88.62,€98)"), StandardCharsets.UTF_8);
+        List<String> args = new ArrayList<>(List.of(options));
+        args.addAll(List.of("--max-weight", "1000", "--max-products", "1000", "--max-product-weight", "1000", input.toString()));
+        FindBestPackage.main(args.toArray(new String[0]));
+        Assertions.assertEquals(List.of(
+            IntStream.rangeClosed(1, 999).mapToObj(Integer::toString).collect(Collectors.joining(",")),
+            "1"), testOutToList());
+        Assertions.assertTrue(testErrToList().isEmpty());
+    }
+
+    @Test
+    public void testCheckpoint(@TempDir Path tempDir) throws IOException {
+        Path output = tempDir.resolve("output.txt");
+        Path checkpointPath = tempDir.resolve("checkpoint.properties");
+        String path = getPath(getClass().getResource("sampleInput.txt"));
+        FindBestPackage.main(new String[]{"--output", output.toString(), "--checkpoint", checkpointPath.toString(), path});
+
+        Checkpoint checkpoint = Checkpoint.read(checkpointPath);
+        // the sample lines are separated by "\r\r\r\n" so each one is followed by two blank lines
+        Assertions.assertEquals(12, checkpoint.getLineIndex());
+        Assertions.assertEquals(Files.size(Path.of(path)), checkpoint.getInputOffset());
+        Assertions.assertEquals(Files.size(output), checkpoint.getOutputLength());
+    }
+
+    @Test
+    public void testResume(@TempDir Path tempDir) throws IOException {
+        Path output = tempDir.resolve("output.txt");
+        Path checkpointPath = tempDir.resolve("checkpoint.properties");
+        String path = getPath(getClass().getResource("sampleInput.txt"));
+        String[] args = {"--output", output.toString(), "--checkpoint", checkpointPath.toString(),
+            "--checkpoint-interval", "1", "--resume", path};
+
+        // simulate a run that died after the second line was checkpointed and a partial third line was written
+        FindBestPackage.main(args);
+        InputLineReader reader = new InputLineReader(Files.newInputStream(Path.of(path)));
+        for (int i = 0; i < 6; i++) {
+            reader.readLine();
+        }
+        long outputLength = ("4" + System.lineSeparator() + "-" + System.lineSeparator()).length();
+        new Checkpoint(6, reader.getOffset(), outputLength).write(checkpointPath);
+        Files.write(output, ("4" + System.lineSeparator() + "-" + System.lineSeparator() + "2,").getBytes(StandardCharsets.UTF_8));
+
+        FindBestPackage.main(args);
+        Assertions.assertEquals(List.of("4", "-", "2,7", "8,9"), Files.readAllLines(output, StandardCharsets.UTF_8));
+        Assertions.assertEquals(12, Checkpoint.read(checkpointPath).getLineIndex());
+    }
+
+    @Test
+    public void testAllStrategiesHaveTheSameOutput(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        new InputGenerator().seed(1).duplicateRate(0.5).invalidRate(0.05).write(input, 100);
+        List<String> expectedOutput = null;
+        for (PackageSpecification.FindBestPackageStrategy strategy : PackageSpecification.FindBestPackageStrategy.values()) {
+            Path output = tempDir.resolve("output-" + strategy + ".txt");
+            FindBestPackage.main(new String[]{"--strategy", strategy.name(), "--output", output.toString(), input.toString()});
+            List<String> outputLines = Files.readAllLines(output, StandardCharsets.UTF_8);
+            Assertions.assertEquals(100, outputLines.size());
+            if (expectedOutput == null) {
+                expectedOutput = outputLines;
+            }
+            Assertions.assertEquals(expectedOutput, outputLines, strategy + " has a different output");
+        }
+    }
+
     @Test
     public void testWithBigFile() {
         PrintStream current = System.out;
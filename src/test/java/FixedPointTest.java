@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FixedPointTest {
+    @Test
+    public void testParse() {
+        Assertions.assertEquals(5338, FixedPoint.parse("53.38"));
+        Assertions.assertEquals(1530, FixedPoint.parse("15.3"));
+        Assertions.assertEquals(4500, FixedPoint.parse("45"));
+        Assertions.assertEquals(4500, FixedPoint.parse("45."));
+        Assertions.assertEquals(50, FixedPoint.parse(".5"));
+        Assertions.assertEquals(-1005, FixedPoint.parse("-10.05"));
+        Assertions.assertEquals(100, FixedPoint.parse("+1"));
+    }
+
+    @Test
+    public void testParseInvalid() {
+        Assertions.assertThrows(NumberFormatException.class, () -> FixedPoint.parse("53.385"));
+        Assertions.assertThrows(NumberFormatException.class, () -> FixedPoint.parse("1e3"));
+        Assertions.assertThrows(NumberFormatException.class, () -> FixedPoint.parse("1.2.3"));
+        Assertions.assertThrows(NumberFormatException.class, () -> FixedPoint.parse("."));
+        Assertions.assertThrows(NumberFormatException.class, () -> FixedPoint.parse("-"));
+        Assertions.assertThrows(NumberFormatException.class, () -> FixedPoint.parse(""));
+        Assertions.assertThrows(NumberFormatException.class, () -> FixedPoint.parse("99999999999999999999"));
+    }
+
+    @Test
+    public void testExactSum() {
+        Assertions.assertNotEquals(0.3, 0.1 + 0.2);
+        Assertions.assertEquals(FixedPoint.parse("0.3"), FixedPoint.parse("0.1") + FixedPoint.parse("0.2"));
+    }
+
+    @Test
+    public void testToString() {
+        Assertions.assertEquals("53.38", FixedPoint.toString(5338));
+        Assertions.assertEquals("15.3", FixedPoint.toString(1530));
+        Assertions.assertEquals("45", FixedPoint.toString(4500));
+        Assertions.assertEquals("0", FixedPoint.toString(0));
+        Assertions.assertEquals(5338, FixedPoint.of(53.38));
+    }
+}
@@ -0,0 +1,121 @@
+import com.google.common.base.Preconditions;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generates reproducible input files: the same seed and settings always produce the same file.<br>
+ * The settings are:<ul>
+ * <li>the number of lines
+ * <li>the min and max number of products of a line, uniformly distributed
+ * <li>the capacity tightness: the max weight of a package as a fraction of the total weight of its products,
+ * limited to 100
+ * <li>the duplicate rate: the probability that a product has the same weight and price as a previous product of the line
+ * <li>the invalid rate: the probability that a line breaks a constraint or cannot be parsed
+ * </ul>
+ * It can also be used from the command line:
+ * <code>InputGenerator &lt;output file&gt; [lines] [seed]</code>
+ */
+public class InputGenerator {
+    private long seed = 42;
+    private int minProducts = 1;
+    private int maxProducts = 15;
+    private double capacityTightness = 0.3;
+    private double duplicateRate = 0.1;
+    private double invalidRate = 0.01;
+
+    public InputGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public InputGenerator products(int minProducts, int maxProducts) {
+        Preconditions.checkArgument(1 <= minProducts && minProducts <= maxProducts && maxProducts <= 15,
+            "The number of products should be between 1 and 15.");
+        this.minProducts = minProducts;
+        this.maxProducts = maxProducts;
+        return this;
+    }
+
+    public InputGenerator capacityTightness(double capacityTightness) {
+        Preconditions.checkArgument(capacityTightness >= 0, "The capacity tightness should not be negative.");
+        this.capacityTightness = capacityTightness;
+        return this;
+    }
+
+    public InputGenerator duplicateRate(double duplicateRate) {
+        Preconditions.checkArgument(duplicateRate >= 0 && duplicateRate <= 1, "The duplicate rate should be between 0 and 1.");
+        this.duplicateRate = duplicateRate;
+        return this;
+    }
+
+    public InputGenerator invalidRate(double invalidRate) {
+        Preconditions.checkArgument(invalidRate >= 0 && invalidRate <= 1, "The invalid rate should be between 0 and 1.");
+        this.invalidRate = invalidRate;
+        return this;
+    }
+
+    /**
+     * Writes the lines into a file.
+     */
+    public void write(Path path, long lines) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            write(writer, lines);
+        }
+    }
+
+    /**
+     * Writes the lines, each one terminated by '\n'.
+     */
+    public void write(Writer writer, long lines) throws IOException {
+        Random random = new Random(seed);
+        StringBuilder line = new StringBuilder(512);
+        for (long i = 0; i < lines; i++) {
+            line.setLength(0);
+            appendLine(line, random);
+            writer.append(line).append('\n');
+        }
+    }
+
+    private void appendLine(StringBuilder line, Random random) {
+        int products = minProducts + random.nextInt(maxProducts - minProducts + 1);
+        long[] weights = new long[products];
+        long[] prices = new long[products];
+        long totalWeight = 0;
+        for (int i = 0; i < products; i++) {
+            if (i > 0 && random.nextDouble() < duplicateRate) {
+                int duplicate = random.nextInt(i);
+                weights[i] = weights[duplicate];
+                prices[i] = prices[duplicate];
+            } else {
+                weights[i] = 1 + random.nextInt(100 * 100);
+                prices[i] = 100 * (1 + random.nextInt(100));
+            }
+            totalWeight += weights[i];
+        }
+        long maxWeight = Math.min(100 * 100, Math.round(totalWeight * capacityTightness));
+
+        int invalidToken = random.nextDouble() < invalidRate ? random.nextInt(3) : -1;
+        line.append(invalidToken == 0 ? "101" : FixedPoint.toString(maxWeight)).append(" :");
+        for (int i = 0; i < products; i++) {
+            line.append(" (").append(i + 1).append(',')
+                .append(FixedPoint.toString(weights[i])).append(",€")
+                .append(invalidToken == 1 && i == 0 ? "XXX" : FixedPoint.toString(prices[i])).append(')');
+        }
+        if (invalidToken == 2) {
+            line.append(" (16,1,€1)");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Preconditions.checkArgument(args.length >= 1, "Usage: InputGenerator <output file> [lines] [seed]");
+        long lines = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        new InputGenerator().seed(seed).write(Path.of(args[0]), lines);
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InputLineReaderTest {
+    @Test
+    public void testLineTerminators() throws IOException {
+        InputLineReader reader = new InputLineReader(toStream("a\nb\rc\r\n\r\nd"));
+        Assertions.assertEquals(List.of("a", "b", "c", "", "d"), readAll(reader));
+        Assertions.assertEquals(4, reader.getLineIndex());
+        Assertions.assertEquals(10, reader.getOffset());
+    }
+
+    @Test
+    public void testOffsetsIncludeTheTerminators() throws IOException {
+        InputLineReader reader = new InputLineReader(toStream("8 : (1,15.3,€34)\r\n75 : x\r"));
+        Assertions.assertEquals("8 : (1,15.3,€34)", reader.readLine());
+        Assertions.assertEquals(0, reader.getLineIndex());
+        // the euro sign takes 3 bytes
+        Assertions.assertEquals(20, reader.getOffset());
+        Assertions.assertEquals("75 : x", reader.readLine());
+        Assertions.assertEquals(1, reader.getLineIndex());
+        Assertions.assertEquals(27, reader.getOffset());
+        Assertions.assertNull(reader.readLine());
+    }
+
+    @Test
+    public void testResumeFromOffset() throws IOException {
+        String text = "first\r\nsecond\r\nthird";
+        InputLineReader reader = new InputLineReader(toStream(text));
+        reader.readLine();
+        long offset = reader.getOffset();
+
+        InputLineReader resumed = new InputLineReader(toStream(text.substring((int) offset)), offset, reader.getLineIndex() + 1);
+        Assertions.assertEquals("second", resumed.readLine());
+        Assertions.assertEquals(1, resumed.getLineIndex());
+        Assertions.assertEquals(List.of("third"), readAll(resumed));
+        Assertions.assertEquals(text.length(), resumed.getOffset());
+    }
+
+    @Test
+    public void testTerminatorSplitAcrossReads() throws IOException {
+        // a stream returning one byte per read call
+        InputStream in = new ByteArrayInputStream("a\r\nb".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        InputLineReader reader = new InputLineReader(in);
+        Assertions.assertEquals("a", reader.readLine());
+        Assertions.assertEquals(3, reader.getOffset());
+        Assertions.assertEquals(List.of("b"), readAll(reader));
+    }
+
+    @Test
+    public void testLongLine() throws IOException {
+        String line = "x".repeat(100_000);
+        Assertions.assertEquals(List.of(line, line), readAll(new InputLineReader(toStream(line + "\n" + line))));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        Assertions.assertThrows(NullPointerException.class, () -> new InputLineReader(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new InputLineReader(toStream(""), -1, 0));
+    }
+
+    private static InputStream toStream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> readAll(InputLineReader reader) throws IOException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+}
@@ -1,29 +1,44 @@
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
-import java.util.BitSet;
-import java.util.Objects;
-import java.util.stream.Collectors;
-
 public class KnapsackTest {
     @Test
     public void testFindMax(){
-        Product[] products = {
-            new Product(1, 10.0, 20.0),
-            new Product(2, 15.0, 22.0),
-            new Product(3, 8.0, 25.0)
-        };
-        BitSet max = new Knapsack(products).findMax(32);
-        String result = max.stream().map(index -> products[index].getNumber()).sorted().mapToObj(Objects::toString).collect(Collectors.joining(","));
-        Assertions.assertEquals("2,3", result);
+        long[] weights = {1000, 1500, 800};
+        long[] prices = {2000, 2200, 2500};
+        long max = new Knapsack(15, 10000).solve(weights, prices, 3, 3200);
+        Assertions.assertEquals(0b110, max);
     }
 
-    @SuppressWarnings("ConstantConditions")
     @Test
     public void testFindMaxEmptyProducts(){
-        Product[] products = {};
-        BitSet max = new Knapsack(products).findMax(32);
-        String result = max.stream().map(index -> products[index].getNumber()).sorted().mapToObj(Objects::toString).collect(Collectors.joining(","));
-        Assertions.assertEquals("", result);
+        long max = new Knapsack(15, 10000).solve(new long[0], new long[0], 0, 3200);
+        Assertions.assertEquals(0, max);
+    }
+
+    @Test
+    public void testFindMaxSamePriceAndWeight(){
+        // {0, 3} and {1, 2} have the same price and weight, the lower mask is chosen
+        long[] weights = {1000, 1000, 1000, 1000};
+        long[] prices = {2000, 2000, 2000, 2000};
+        Assertions.assertEquals(0b0011, new Knapsack(15, 10000).solve(weights, prices, 4, 2000));
+    }
+
+    @Test
+    public void testReuse(){
+        Knapsack knapsack = new Knapsack(15, 10000);
+        long[] weights = {1000, 1500, 800};
+        long[] prices = {2000, 2200, 2500};
+        Assertions.assertEquals(0b110, knapsack.solve(weights, prices, 3, 3200));
+        Assertions.assertEquals(0b101, knapsack.solve(weights, prices, 3, 2000));
+        Assertions.assertEquals(0b001, knapsack.solve(new long[]{100}, new long[]{100}, 1, 10000));
+        Assertions.assertEquals(0b110, knapsack.solve(weights, prices, 3, 3200));
+    }
+
+    @Test
+    public void testInvalidArguments(){
+        Knapsack knapsack = new Knapsack(2, 100);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> knapsack.solve(new long[3], new long[3], 3, 100));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> knapsack.solve(new long[1], new long[1], 1, 101));
     }
 }
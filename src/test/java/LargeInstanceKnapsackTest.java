@@ -0,0 +1,113 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class LargeInstanceKnapsackTest {
+    private final LargeInstanceKnapsack knapsack = new LargeInstanceKnapsack();
+
+    @Test
+    public void testFindMax() {
+        long[] weights = {1000, 1500, 800};
+        long[] prices = {2000, 2200, 2500};
+        Assertions.assertEquals(BitSet.valueOf(new long[]{0b110}), knapsack.solve(weights, prices, 3, 3200));
+    }
+
+    @Test
+    public void testFindMaxEmptyProducts() {
+        Assertions.assertTrue(knapsack.solve(new long[0], new long[0], 0, 3200).isEmpty());
+        Assertions.assertTrue(knapsack.solve(new long[]{100}, new long[]{100}, 1, -1).isEmpty());
+    }
+
+    @Test
+    public void testSameResultAsKnapsack() {
+        Knapsack reference = new Knapsack(15, 10000);
+        Random random = new Random(11);
+        long[] weights = new long[15];
+        long[] prices = new long[15];
+        for (int round = 0; round < 500; round++) {
+            int count = random.nextInt(16);
+            for (int i = 0; i < count; i++) {
+                // few distinct values to have many ties
+                weights[i] = random.nextInt(5) * 650;
+                prices[i] = random.nextInt(4) * 300;
+            }
+            long maxWeight = random.nextInt(10001);
+            Assertions.assertEquals(BitSet.valueOf(new long[]{reference.solve(weights, prices, count, maxWeight)}),
+                knapsack.solve(weights, prices, count, maxWeight), "round " + round);
+        }
+    }
+
+    @Test
+    public void testManyProducts() {
+        Random random = new Random(13);
+        int count = 300;
+        long[] weights = new long[count];
+        long[] prices = new long[count];
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1 + random.nextInt(50);
+            prices[i] = random.nextInt(20);
+        }
+        int maxWeight = 3000;
+        Assertions.assertEquals(solveWithAllPackages(weights, prices, count, maxWeight),
+            knapsack.solve(weights, prices, count, maxWeight));
+    }
+
+    @Test
+    public void testParallelSameResultAsSequential() {
+        Random random = new Random(17);
+        int count = 60;
+        long[] weights = new long[count];
+        long[] prices = new long[count];
+        for (int i = 0; i < count; i++) {
+            // few distinct values to have many ties, some of the products are lighter than a block
+            weights[i] = 1 + random.nextInt(4) * 20_000;
+            prices[i] = random.nextInt(5) * 100;
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            LargeInstanceKnapsack parallelKnapsack = new LargeInstanceKnapsack(pool);
+            for (int maxWeight : new int[]{LargeInstanceKnapsack.PARALLEL_THRESHOLD - 1, 300_000, 1_000_000}) {
+                Assertions.assertEquals(knapsack.solve(weights, prices, count, maxWeight),
+                    parallelKnapsack.solve(weights, prices, count, maxWeight), "max weight " + maxWeight);
+                Assertions.assertEquals(knapsack.getExploredStates(), parallelKnapsack.getExploredStates());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The same knapsack keeping the whole best package for every capacity instead of recovering it.
+     */
+    private static BitSet solveWithAllPackages(long[] weights, long[] prices, int count, int maxWeight) {
+        long[] bestPrices = new long[maxWeight + 1];
+        long[] bestWeights = new long[maxWeight + 1];
+        BitSet[] bestPackages = new BitSet[maxWeight + 1];
+        for (int c = 0; c <= maxWeight; c++) {
+            bestPackages[c] = new BitSet();
+        }
+        for (int i = 0; i < count; i++) {
+            for (int c = maxWeight; c >= weights[i]; c--) {
+                int without = c - (int) weights[i];
+                long price = bestPrices[without] + prices[i];
+                long weight = bestWeights[without] + weights[i];
+                if (price > bestPrices[c] || (price == bestPrices[c] && weight < bestWeights[c])) {
+                    bestPrices[c] = price;
+                    bestWeights[c] = weight;
+                    bestPackages[c] = (BitSet) bestPackages[without].clone();
+                    bestPackages[c].set(i);
+                }
+            }
+        }
+        return bestPackages[maxWeight];
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> knapsack.solve(new long[1], new long[1], 1, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Measures the scaling of the parallel row updates of a large instance from 1 to 32 threads, run with: mvn test -Pbenchmark
+// The speedup is bounded by the available processors, which are printed with the results
+@Tag("benchmark")
+public class LargeInstanceScalingBenchmarkTest {
+    private static final int PRODUCTS = 500;
+    private static final int MAX_WEIGHT = 1_000_000;
+    private static final int[] PARALLELISMS = {1, 2, 4, 8, 16, 32};
+
+    @Test
+    public void benchmarkParallelism() {
+        Random random = new Random(42);
+        long[] weights = new long[PRODUCTS];
+        long[] prices = new long[PRODUCTS];
+        for (int i = 0; i < PRODUCTS; i++) {
+            weights[i] = 1 + random.nextInt(MAX_WEIGHT / 50);
+            prices[i] = random.nextInt(10_000);
+        }
+        LargeInstanceKnapsack sequentialKnapsack = new LargeInstanceKnapsack();
+        // warm up
+        sequentialKnapsack.solve(weights, prices, PRODUCTS, MAX_WEIGHT);
+        long startTS = System.nanoTime();
+        BitSet expected = sequentialKnapsack.solve(weights, prices, PRODUCTS, MAX_WEIGHT);
+        long sequentialNanos = System.nanoTime() - startTS;
+        System.out.printf("%d processors, %d products, max weight %d%n",
+            Runtime.getRuntime().availableProcessors(), PRODUCTS, MAX_WEIGHT);
+        System.out.printf("sequential   %8.1f ms%n", sequentialNanos / 1e6);
+
+        for (int parallelism : PARALLELISMS) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                LargeInstanceKnapsack knapsack = new LargeInstanceKnapsack(pool);
+                knapsack.solve(weights, prices, PRODUCTS, MAX_WEIGHT);
+                startTS = System.nanoTime();
+                BitSet selected = knapsack.solve(weights, prices, PRODUCTS, MAX_WEIGHT);
+                long nanos = System.nanoTime() - startTS;
+                Assertions.assertEquals(expected, selected, parallelism + " threads have a different package");
+                System.out.printf("%2d threads   %8.1f ms  speedup %.2f%n", parallelism, nanos / 1e6, (double) sequentialNanos / nanos);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+public class PackageProcessorTest {
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setupExecutor() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSameResultsAsOneLineAtATime() throws Exception {
+        StringWriter input = new StringWriter();
+        new InputGenerator().seed(7).invalidRate(0.1).write(input, 300);
+        List<String> lines = new ArrayList<>(input.toString().lines().collect(Collectors.toList()));
+        lines.add(100, "");
+
+        PackageProcessor processor = new PackageProcessor(executor, 4, 16);
+        LinesPublisher publisher = new LinesPublisher(lines);
+        publisher.subscribe(processor);
+        ResultSubscriber subscriber = new ResultSubscriber(1);
+        processor.subscribe(subscriber);
+        List<PackageResult> results = subscriber.getResults();
+
+        Assertions.assertEquals(300, results.size());
+        for (PackageResult result : results) {
+            String line = lines.get(result.getLineNumber());
+            try {
+                PackageSpecification packageSpecification = new PackageSpecification(line, result.getLineNumber());
+                packageSpecification.setFindBestPackageStrategy(PackageSpecification.FindBestPackageStrategy.KNAPSACK);
+                Assertions.assertEquals(new OutputLine(packageSpecification.findBestPackage()).toString(), result.toOutputLine());
+                Assertions.assertTrue(result.getError().isEmpty());
+            } catch (PackageSpecificationBaseException e) {
+                Assertions.assertEquals(e.getMessage(), result.getError().orElseThrow());
+                Assertions.assertEquals("-", result.toOutputLine());
+            }
+        }
+        // the results are in the input order and the blank line has none
+        Assertions.assertEquals(99, results.get(99).getLineNumber());
+        Assertions.assertEquals(101, results.get(100).getLineNumber());
+        Assertions.assertTrue(publisher.getMaxOutstanding() <= 16, "outstanding " + publisher.getMaxOutstanding());
+    }
+
+    @Test
+    public void testSlowSubscriberBoundsTheDemand() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            lines.add("8 : (1,15.3,€34)");
+        }
+        PackageProcessor processor = new PackageProcessor(executor, 2, 5);
+        LinesPublisher publisher = new LinesPublisher(lines);
+        publisher.subscribe(processor);
+        ResultSubscriber subscriber = new ResultSubscriber(0);
+        processor.subscribe(subscriber);
+
+        // nothing is requested by the subscriber, so only the first lines are requested from the publisher
+        Thread.sleep(200);
+        Assertions.assertEquals(5, publisher.getEmitted());
+        subscriber.request(10);
+        Thread.sleep(200);
+        Assertions.assertEquals(15, publisher.getEmitted());
+        subscriber.request(Long.MAX_VALUE);
+        Assertions.assertEquals(100, subscriber.getResults().size());
+    }
+
+    @Test
+    public void testUpstreamError() {
+        PackageProcessor processor = new PackageProcessor(executor, 1, 1);
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        ResultSubscriber subscriber = new ResultSubscriber(1);
+        processor.subscribe(subscriber);
+        processor.onError(new IOException("read failure"));
+        ExecutionException e = Assertions.assertThrows(ExecutionException.class, subscriber::getResults);
+        Assertions.assertEquals("read failure", e.getCause().getMessage());
+
+        ResultSubscriber secondSubscriber = new ResultSubscriber(1);
+        processor.subscribe(secondSubscriber);
+        Assertions.assertThrows(ExecutionException.class, secondSubscriber::getResults);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        Assertions.assertThrows(NullPointerException.class, () -> new PackageProcessor(null, 1, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PackageProcessor(executor, 0, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PackageProcessor(executor, 4, 2));
+    }
+
+    /**
+     * Publishes the lines on demand, from the requesting thread, and keeps the max number of requested lines not yet published.
+     */
+    private static class LinesPublisher implements Flow.Publisher<String> {
+        private final List<String> lines;
+        private final AtomicInteger emitted = new AtomicInteger();
+        private final AtomicLong outstanding = new AtomicLong();
+        private final AtomicLong maxOutstanding = new AtomicLong();
+
+        LinesPublisher(List<String> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super String> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private boolean emitting;
+
+                @Override
+                public void request(long n) {
+                    maxOutstanding.accumulateAndGet(outstanding.addAndGet(n), Math::max);
+                    synchronized (this) {
+                        if (emitting) {
+                            return;
+                        }
+                        emitting = true;
+                    }
+                    while (true) {
+                        synchronized (this) {
+                            if (outstanding.get() == 0 || emitted.get() == lines.size()) {
+                                emitting = false;
+                                break;
+                            }
+                        }
+                        outstanding.decrementAndGet();
+                        subscriber.onNext(lines.get(emitted.getAndIncrement()));
+                    }
+                    if (emitted.get() == lines.size()) {
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+        }
+
+        int getEmitted() {
+            return emitted.get();
+        }
+
+        long getMaxOutstanding() {
+            return maxOutstanding.get();
+        }
+    }
+
+    private static class ResultSubscriber implements Flow.Subscriber<PackageResult> {
+        private final long batch;
+        private final List<PackageResult> results = new ArrayList<>();
+        private final CompletableFuture<List<PackageResult>> completion = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        /**
+         * @param batch the number of results requested at once, 0 to request them only explicitly
+         */
+        ResultSubscriber(long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public synchronized void onNext(PackageResult result) {
+            results.add(result);
+            if (batch > 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completion.completeExceptionally(throwable);
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            completion.complete(results);
+        }
+
+        void request(long n) {
+            subscription.request(n);
+        }
+
+        List<PackageResult> getResults() throws ExecutionException, InterruptedException, TimeoutException {
+            return completion.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
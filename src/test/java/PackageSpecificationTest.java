@@ -3,11 +3,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -15,7 +20,7 @@ public class PackageSpecificationTest {
     @Test
     public void testValidInputLine() {
         PackageSpecification packageSpecification = new PackageSpecification("81 : (1,53.38,€45) (2,88.62,€98)", 1);
-        assertEquals(81.0, packageSpecification.getMaxWeight());
+        assertEquals(8100, packageSpecification.getMaxWeight());
         Set<Product> expectedProducts = Sets.newHashSet(
             new Product(1, 53.38, 45.0),
             new Product(2, 88.62, 98.0)
@@ -113,6 +118,15 @@ public class PackageSpecificationTest {
         // System.out.println(ex.getMessage() + " Cause: " + ex.getCause());
     }
 
+    @Test
+    public void testTooManyDecimals() {
+        PackageSpecificationParsingException ex = assertThrows(PackageSpecificationParsingException.class,
+            () -> new PackageSpecification("81 : (1,53.385,€45)", 1)
+        );
+        assertEquals(PackageSpecification.PRODUCT_WEIGHT, ex.getTokenName());
+        assertEquals("53.385", ex.getActualToken());
+    }
+
     @Test
     public void testMissingProductPrice() {
         PackageSpecificationParsingException ex = assertThrows(PackageSpecificationParsingException.class,
@@ -213,4 +227,111 @@ public class PackageSpecificationTest {
         );
         assertEquals(expectedProducts, aPackage.get().getProducts());
     }
+
+    @ParameterizedTest
+    @EnumSource(PackageSpecification.FindBestPackageStrategy.class)
+    public void testFindPackageWithZeroWeightsAndPrices(PackageSpecification.FindBestPackageStrategy strategy) {
+        PackageSpecification packageSpecification = new PackageSpecification(20.0,
+            new Product(1, 12.69, 61.0),
+            new Product(2, 13.30, 25.0),
+            new Product(3, 0.0, 42.0),
+            new Product(4, 1.04, 0.0),
+            new Product(5, 0.0, 0.0),
+            new Product(6, 9.02, 0.0),
+            new Product(7, 15.09, 25.0),
+            new Product(8, 13.63, 75.0)
+        );
+        packageSpecification.setFindBestPackageStrategy(strategy);
+        Optional<Package> aPackage = packageSpecification.findBestPackage();
+        assertTrue(aPackage.isPresent());
+        Set<Product> expectedProducts = Sets.newHashSet(
+            new Product(3, 0.0, 42.0),
+            new Product(8, 13.63, 75.0)
+        );
+        assertEquals(expectedProducts, aPackage.get().getProducts());
+    }
+
+    @Test
+    public void testFindPackageByPriceWithNonIntegralPrices() {
+        PackageSpecification packageSpecification = new PackageSpecification(20.0,
+            new Product(1, 10.0, 20.5),
+            new Product(2, 10.0, 20.25),
+            new Product(3, 10.0, 20.75)
+        );
+        packageSpecification.setFindBestPackageStrategy(PackageSpecification.FindBestPackageStrategy.DP_BY_PRICE);
+        Optional<Package> aPackage = packageSpecification.findBestPackage();
+        assertTrue(aPackage.isPresent());
+        Set<Product> expectedProducts = Sets.newHashSet(
+            new Product(1, 10.0, 20.5),
+            new Product(3, 10.0, 20.75)
+        );
+        assertEquals(expectedProducts, aPackage.get().getProducts());
+    }
+
+    @Test
+    public void testAllStrategiesFindTheSamePackage() {
+        Random random = new Random(7);
+        for (int line = 0; line < 100; line++) {
+            // few distinct weights and prices so there are many packages with the same price and weight
+            Set<Product> products = IntStream.rangeClosed(1, 1 + random.nextInt(10))
+                .mapToObj(number -> new Product(number, 5.0 * (1 + random.nextInt(4)), 10.0 * (1 + random.nextInt(3))))
+                .collect(Collectors.toSet());
+            double maxWeight = random.nextInt(40);
+            Set<Optional<Set<Product>>> packages = Arrays.stream(PackageSpecification.FindBestPackageStrategy.values())
+                .map(strategy -> {
+                    PackageSpecification packageSpecification = new PackageSpecification(maxWeight, products);
+                    packageSpecification.setFindBestPackageStrategy(strategy);
+                    return packageSpecification.findBestPackage().map(Package::getProducts);
+                })
+                .collect(Collectors.toSet());
+            assertEquals(1, packages.size(), "Different packages for " + products + " and max weight " + maxWeight);
+        }
+    }
+
+    @Test
+    public void testFindPackageWithTimeBudget() {
+        PackageSpecification packageSpecification = new PackageSpecification(10.0,
+            new Product(1, 6.0, 13.0),
+            new Product(2, 5.0, 10.0),
+            new Product(3, 5.0, 10.0)
+        );
+        packageSpecification.setFindBestPackageStrategy(PackageSpecification.FindBestPackageStrategy.BRANCH_AND_BOUND);
+        packageSpecification.setTimeBudget(Duration.ofMinutes(1));
+        Optional<Package> aPackage = packageSpecification.findBestPackage();
+        assertTrue(aPackage.isPresent());
+        assertTrue(aPackage.get().isOptimal());
+        assertEquals(Sets.newHashSet(new Product(2, 5.0, 10.0), new Product(3, 5.0, 10.0)), aPackage.get().getProducts());
+
+        // an expired budget gives the greedy package
+        packageSpecification.setTimeBudget(Duration.ZERO);
+        aPackage = packageSpecification.findBestPackage();
+        assertTrue(aPackage.isPresent());
+        assertFalse(aPackage.get().isOptimal());
+        assertEquals(Sets.newHashSet(new Product(1, 6.0, 13.0)), aPackage.get().getProducts());
+    }
+
+    @Test
+    public void testLargePackageExceedsTheDefaultLimits() {
+        String inputLine = IntStream.rangeClosed(1, 20).mapToObj(number -> " (" + number + ",10,€" + number + ")")
+            .collect(Collectors.joining("", "150 :", ""));
+        PackageSpecificationValidationException ex = assertThrows(PackageSpecificationValidationException.class,
+            () -> new PackageSpecification(inputLine, 1));
+        assertTrue(ex.getMessage().contains("'" + PackageSpecification.MAX_WEIGHT + "' has an invalid value = '150'"));
+        assertTrue(ex.getMessage().contains("'" + PackageSpecification.MAX_PRODUCTS + "' has an invalid value = '20'"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PackageSpecification.FindBestPackageStrategy.class)
+    public void testFindLargePackage(PackageSpecification.FindBestPackageStrategy strategy) {
+        // 20 products of weight 10 with the price equal to their number, 15 of them fit
+        String inputLine = IntStream.rangeClosed(1, 20).mapToObj(number -> " (" + number + ",10,€" + number + ")")
+            .collect(Collectors.joining("", "150 :", ""));
+        PackageSpecification packageSpecification = new PackageSpecification(inputLine, 1,
+            new PackageLimits(100_000 * FixedPoint.SCALE, 10_000, 100_000 * FixedPoint.SCALE, 100_000 * FixedPoint.SCALE));
+        packageSpecification.setFindBestPackageStrategy(strategy);
+        Optional<Package> aPackage = packageSpecification.findBestPackage();
+        assertTrue(aPackage.isPresent());
+        assertEquals(IntStream.rangeClosed(6, 20).boxed().collect(Collectors.toSet()),
+            aPackage.get().getProducts().stream().map(Product::getNumber).collect(Collectors.toSet()));
+    }
 }
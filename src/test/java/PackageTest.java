@@ -40,7 +40,35 @@ public class PackageTest {
             new Product(1, 10.0, 20.0),
             new Product(2, 9.0, 20.0)
         ));
-        assertEquals(40.0, aPackage.getPrice());
-        assertEquals(19.0, aPackage.getWeight());
+        assertEquals(4000, aPackage.getPrice());
+        assertEquals(1900, aPackage.getWeight());
+    }
+
+    @Test
+    public void testTotalWeightIsExact(){
+        Package aPackage = new Package(Sets.newHashSet(
+            new Product(1, 53.38, 45.0),
+            new Product(2, 30.18, 9.0),
+            new Product(3, 0.1, 0.0),
+            new Product(4, 0.2, 0.0)
+        ));
+        assertEquals(8386, aPackage.getWeight());
+    }
+
+    @Test
+    public void testComparatorSamePackagePriceAndWeight(){
+        Package aPackage = new Package(Sets.newHashSet(
+            new Product(1, 10.0, 20.0),
+            new Product(4, 10.0, 20.0)
+        ));
+
+        Package bPackage = new Package(Sets.newHashSet(
+            new Product(2, 10.0, 20.0),
+            new Product(3, 10.0, 20.0)
+        ));
+
+        // the package without the highest different product number is preferred
+        assertTrue(Package.BEST_PACKAGE_COMPARATOR.compare(aPackage, bPackage) < 0);
+        assertEquals(0, Package.BEST_PACKAGE_COMPARATOR.compare(aPackage, aPackage));
     }
 }
@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class ParetoSolverTest {
+    private final ParetoSolver solver = new ParetoSolver(15);
+
+    @Test
+    public void testFindMax() {
+        long[] weights = {1000, 1500, 800};
+        long[] prices = {2000, 2200, 2500};
+        Assertions.assertEquals(0b110, solver.solve(weights, prices, 3, 3200));
+    }
+
+    @Test
+    public void testFindMaxPrefersMinWeight() {
+        long[] weights = {1050, 1550, 475};
+        long[] prices = {2000, 4500, 2500};
+        Assertions.assertEquals(0b101, solver.solve(weights, prices, 3, 1600));
+    }
+
+    @Test
+    public void testFindMaxSamePriceAndWeight() {
+        // {0, 3} and {1, 2} have the same price and weight, the lower mask is chosen
+        long[] weights = {1000, 1000, 1000, 1000};
+        long[] prices = {2000, 2000, 2000, 2000};
+        Assertions.assertEquals(0b0011, solver.solve(weights, prices, 4, 2000));
+    }
+
+    @Test
+    public void testFindMaxNothingFits() {
+        Assertions.assertEquals(0, solver.solve(new long[]{1000}, new long[]{2000}, 1, 500));
+        Assertions.assertEquals(0, solver.solve(new long[0], new long[0], 0, 500));
+    }
+
+    @Test
+    public void testTheListIsSmallForTightCapacities() {
+        long[] weights = new long[15];
+        long[] prices = new long[15];
+        for (int i = 0; i < 15; i++) {
+            weights[i] = 1000 + 37 * i;
+            prices[i] = 500 + 91 * i;
+        }
+        solver.solve(weights, prices, 15, 2500);
+        // far less than the 32768 packages of 15 products
+        Assertions.assertTrue(solver.getExploredStates() < 1000, "explored " + solver.getExploredStates());
+    }
+
+    @Test
+    public void testSameResultAsKnapsack() {
+        Knapsack reference = new Knapsack(15, 10000);
+        Random random = new Random(17);
+        long[] weights = new long[15];
+        long[] prices = new long[15];
+        for (int round = 0; round < 500; round++) {
+            int count = random.nextInt(16);
+            boolean ties = random.nextBoolean();
+            for (int i = 0; i < count; i++) {
+                // arbitrary decimals or few distinct values to have many ties
+                weights[i] = ties ? random.nextInt(5) * 650 : random.nextInt(10001);
+                prices[i] = ties ? random.nextInt(4) * 300 : random.nextInt(10001);
+            }
+            long maxWeight = random.nextInt(10001);
+            Assertions.assertEquals(reference.solve(weights, prices, count, maxWeight),
+                solver.solve(weights, prices, count, maxWeight), "round " + round);
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ParetoSolver(64));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ParetoSolver(2).solve(new long[3], new long[3], 3, 100));
+    }
+}
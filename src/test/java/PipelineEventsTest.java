@@ -0,0 +1,48 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class PipelineEventsTest {
+    @Test
+    public void testEventsOfEveryStage(@TempDir Path tempDir) throws IOException, URISyntaxException {
+        Path input = Path.of(getClass().getResource("sampleInput.txt").toURI());
+        Path recordingPath = tempDir.resolve("run.jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("LineRead", "Parse", "Validate", "Solve", "Write")) {
+                recording.enable("bestpackage." + name);
+            }
+            recording.start();
+            FindBestPackage.main(new String[]{"--output", tempDir.resolve("output.txt").toString(), input.toString()});
+            recording.stop();
+            recording.dump(recordingPath);
+        }
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(recordingPath).stream()
+            .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        // the sample lines are separated by "\r\r\r\n" so each one is followed by two blank lines
+        Assertions.assertEquals(12, events.get("bestpackage.LineRead").size());
+        Assertions.assertEquals(4, events.get("bestpackage.Parse").size());
+        Assertions.assertEquals(4, events.get("bestpackage.Validate").size());
+        Assertions.assertEquals(4, events.get("bestpackage.Write").size());
+
+        List<RecordedEvent> solveEvents = events.get("bestpackage.Solve");
+        Assertions.assertEquals(List.of(0, 3, 6, 9),
+            solveEvents.stream().map(event -> event.getInt("lineNumber")).sorted().collect(Collectors.toList()));
+        for (RecordedEvent event : solveEvents) {
+            Assertions.assertEquals("KNAPSACK", event.getString("strategy"));
+            Assertions.assertTrue(event.getInt("products") > 0);
+            Assertions.assertTrue(event.getLong("exploredStates") > 0);
+            Assertions.assertTrue(event.getBoolean("optimal"));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PriceIndexedKnapsackTest {
+    private final PriceIndexedKnapsack knapsack = new PriceIndexedKnapsack(15, 10000);
+
+    @Test
+    public void testFindMax() {
+        long[] weights = {1000, 1500, 800};
+        long[] prices = {2000, 2200, 2500};
+        Assertions.assertEquals(0b110, knapsack.solve(weights, prices, 3, 3200));
+    }
+
+    @Test
+    public void testFindMaxPrefersMinWeight() {
+        long[] weights = {1050, 1550, 475};
+        long[] prices = {2000, 4500, 2500};
+        Assertions.assertEquals(0b101, knapsack.solve(weights, prices, 3, 1600));
+    }
+
+    @Test
+    public void testFindMaxNothingFits() {
+        Assertions.assertEquals(0, knapsack.solve(new long[]{1000}, new long[]{2000}, 1, 500));
+    }
+
+    @Test
+    public void testReuse() {
+        long[] weights = {1000, 1500, 800};
+        long[] prices = {2000, 2200, 2500};
+        Assertions.assertEquals(0b110, knapsack.solve(weights, prices, 3, 3200));
+        Assertions.assertEquals(0, knapsack.solve(new long[]{1000}, new long[]{2000}, 1, 500));
+        Assertions.assertEquals(0b110, knapsack.solve(weights, prices, 3, 3200));
+    }
+
+    @Test
+    public void testCanSolve() {
+        Assertions.assertTrue(knapsack.canSolve(new long[]{2000}, 1));
+        Assertions.assertFalse(knapsack.canSolve(new long[]{2050}, 1));
+        Assertions.assertFalse(knapsack.canSolve(new long[]{2001}, 1));
+        Assertions.assertFalse(knapsack.canSolve(new long[]{-2000}, 1));
+        Assertions.assertFalse(new PriceIndexedKnapsack(2, 10000).canSolve(new long[]{20000, 20000}, 2));
+        Assertions.assertFalse(knapsack.canSolve(new long[16], 16));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> knapsack.solve(new long[]{1000}, new long[]{2050}, 1, 3200));
+    }
+}
@@ -0,0 +1,190 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ResultCacheTest {
+    private PrintStream err;
+
+    @BeforeEach
+    public void setupTestErrStream() {
+        err = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @AfterEach
+    public void setupOriginalErrStream() {
+        System.setErr(err);
+    }
+
+    @Test
+    public void testGetAndPut(@TempDir Path tempDir) throws IOException {
+        Path path = tempDir.resolve("cache.bin");
+        try (ResultCache cache = ResultCache.open(path, 1024)) {
+            Assertions.assertTrue(cache.isWritable());
+            Assertions.assertEquals(-1, cache.get(1, 2));
+            cache.put(1, 2, 0b101);
+            cache.put(3, 4, 0);
+            Assertions.assertEquals(0b101, cache.get(1, 2));
+            Assertions.assertEquals(0, cache.get(3, 4));
+            // the same home slot but another key
+            Assertions.assertEquals(-1, cache.get(5, 2));
+            cache.put(1, 2, 0b111);
+            Assertions.assertEquals(0b111, cache.get(1, 2));
+            Assertions.assertEquals(3, cache.getHits());
+            Assertions.assertEquals(2, cache.getMisses());
+        }
+        Assertions.assertEquals(ResultCache.HEADER_SIZE + 1024L * ResultCache.SLOT_SIZE, Files.size(path));
+
+        // the entries are kept by the file, whose number of slots does not change
+        try (ResultCache cache = ResultCache.open(path, 64)) {
+            Assertions.assertEquals(1024, cache.getSlots());
+            Assertions.assertEquals(0b111, cache.get(1, 2));
+        }
+    }
+
+    @Test
+    public void testEvictionWhenFull(@TempDir Path tempDir) throws IOException {
+        try (ResultCache cache = ResultCache.open(tempDir.resolve("cache.bin"), 16)) {
+            Random random = new Random(1);
+            long[][] keys = new long[1000][];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = new long[]{random.nextLong(), random.nextLong()};
+                cache.put(keys[i][0], keys[i][1], i);
+            }
+            int found = 0;
+            for (int i = 0; i < keys.length; i++) {
+                long mask = cache.get(keys[i][0], keys[i][1]);
+                if (mask >= 0) {
+                    // an evicted key is never found with the mask of another one
+                    Assertions.assertEquals(i, mask);
+                    found++;
+                }
+            }
+            Assertions.assertTrue(found > 0 && found <= 16, "found " + found);
+            // the last key is always found
+            Assertions.assertEquals(keys.length - 1, cache.get(keys[keys.length - 1][0], keys[keys.length - 1][1]));
+        }
+    }
+
+    @Test
+    public void testOneWriter(@TempDir Path tempDir) throws IOException {
+        Path path = tempDir.resolve("cache.bin");
+        try (ResultCache writer = ResultCache.open(path, 64);
+             ResultCache reader = ResultCache.open(path, 64)) {
+            Assertions.assertTrue(writer.isWritable());
+            Assertions.assertFalse(reader.isWritable());
+            writer.put(1, 2, 3);
+            Assertions.assertEquals(3, reader.get(1, 2));
+            reader.put(4, 5, 6);
+            Assertions.assertEquals(-1, writer.get(4, 5));
+        }
+    }
+
+    @Test
+    public void testConcurrentOpenOfNewFile(@TempDir Path tempDir) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 20; round++) {
+                Path path = tempDir.resolve("cache" + round + ".bin");
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<ResultCache>> caches = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    caches.add(executor.submit(() -> {
+                        start.await();
+                        return ResultCache.open(path, 1024);
+                    }));
+                }
+                start.countDown();
+                // every opener sees a complete file, exactly one of them is the writer
+                List<ResultCache> openCaches = new ArrayList<>();
+                for (Future<ResultCache> cache : caches) {
+                    openCaches.add(cache.get());
+                }
+                Assertions.assertEquals(1, openCaches.stream().filter(ResultCache::isWritable).count());
+                for (ResultCache cache : openCaches) {
+                    cache.close();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        try (var files = Files.list(tempDir)) {
+            Assertions.assertEquals(20, files.count(), "the temporary files should be deleted");
+        }
+    }
+
+    @Test
+    public void testInvalidFile(@TempDir Path tempDir) throws IOException {
+        Path path = tempDir.resolve("cache.bin");
+        Files.write(path, "not a cache".repeat(10).getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThrows(IOException.class, () -> ResultCache.open(path, 64));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ResultCache.open(path, 4));
+    }
+
+    @Test
+    public void testCachedPackages(@TempDir Path tempDir) throws IOException {
+        try (ResultCache cache = ResultCache.open(tempDir.resolve("cache.bin"), 1024)) {
+            // products with the same price and weight, the cached package is the one with the lowest mask
+            String line = "50 : (3,10,€20) (1,10,€20) (2,40,€50) (4,10,€20)";
+            Optional<Package> solved = findBestPackage(line, cache);
+            Optional<Package> cached = findBestPackage(line, cache);
+            Assertions.assertEquals(1, cache.getHits());
+            Assertions.assertEquals(solved.get().getProducts(), cached.get().getProducts());
+            Assertions.assertEquals("1,2", new OutputLine(cached).toString());
+
+            // another max weight is another specification
+            findBestPackage("20 : (3,10,€20) (1,10,€20) (2,40,€50) (4,10,€20)", cache);
+            Assertions.assertEquals(1, cache.getHits());
+        }
+    }
+
+    @Test
+    public void testWarmRun(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        new InputGenerator().seed(5).write(input, 200);
+        Path cachePath = tempDir.resolve("cache.bin");
+        Path coldOutput = tempDir.resolve("cold.txt");
+        Path warmOutput = tempDir.resolve("warm.txt");
+        FindBestPackage.main(new String[]{"--cache", cachePath.toString(), "--output", coldOutput.toString(), input.toString()});
+        FindBestPackage.main(new String[]{"--cache", cachePath.toString(), "--output", warmOutput.toString(), input.toString()});
+        Assertions.assertEquals(Files.readAllLines(coldOutput, StandardCharsets.UTF_8), Files.readAllLines(warmOutput, StandardCharsets.UTF_8));
+
+        // every valid line of the warm run is found in the cache
+        try (ResultCache cache = ResultCache.open(cachePath, 1024)) {
+            for (String line : Files.readAllLines(input, StandardCharsets.UTF_8)) {
+                try {
+                    PackageSpecification packageSpecification = new PackageSpecification(line, 0);
+                    packageSpecification.setResultCache(cache);
+                    packageSpecification.findBestPackage();
+                    Assertions.assertEquals(0, cache.getMisses(), line);
+                } catch (PackageSpecificationBaseException e) {
+                    // invalid lines are not cached
+                }
+            }
+            Assertions.assertTrue(cache.getHits() > 100);
+        }
+    }
+
+    private static Optional<Package> findBestPackage(String line, ResultCache cache) {
+        PackageSpecification packageSpecification = new PackageSpecification(line, 0);
+        packageSpecification.setResultCache(cache);
+        return packageSpecification.findBestPackage();
+    }
+}
@@ -0,0 +1,118 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShardCoordinatorTest {
+    @Test
+    public void testSplitAtLineStarts(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        Files.write(input, "first\r\nsecond\rthird\n\r\n\r\nfourth line\r\nfifth\nsixth".getBytes(StandardCharsets.UTF_8));
+        for (int count = 1; count <= 20; count++) {
+            List<Shard> shards = ShardCoordinator.split(input, count);
+            Assertions.assertTrue(shards.size() <= count);
+            Assertions.assertEquals(0, shards.get(0).getStartOffset());
+            Assertions.assertEquals(Files.size(input), shards.get(shards.size() - 1).getEndOffset());
+
+            // every range starts where the previous one ends, at the beginning of a line with the same index
+            List<Long> lineStarts = new ArrayList<>();
+            InputLineReader reader = new InputLineReader(Files.newInputStream(input));
+            lineStarts.add(0L);
+            while (reader.readLine() != null) {
+                lineStarts.add(reader.getOffset());
+            }
+            for (int i = 0; i < shards.size(); i++) {
+                Shard shard = shards.get(i);
+                Assertions.assertTrue(shard.getStartOffset() < shard.getEndOffset(), shard.toString());
+                Assertions.assertEquals(lineStarts.indexOf(shard.getStartOffset()), shard.getFirstLineIndex(), shard.toString());
+                if (i > 0) {
+                    Assertions.assertEquals(shards.get(i - 1).getEndOffset(), shard.getStartOffset());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSplitWithLongLine(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        Files.write(input, ("x".repeat(100_000) + "\na\nb").getBytes(StandardCharsets.UTF_8));
+        List<Shard> shards = ShardCoordinator.split(input, 4);
+        Assertions.assertEquals(List.of(new Shard(0, 100_001, 0), new Shard(100_001, 100_004, 1)), shards);
+    }
+
+    @Test
+    public void testSameOutputAsOneProcess(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        new InputGenerator().seed(3).duplicateRate(0.3).invalidRate(0).write(input, 200);
+        Path expectedOutput = tempDir.resolve("expected.txt");
+        FindBestPackage.main(new String[]{"--output", expectedOutput.toString(), input.toString()});
+
+        Path output = tempDir.resolve("output.txt");
+        FindBestPackage.main(new String[]{"--workers", "3", "--output", output.toString(), input.toString()});
+        Assertions.assertEquals(Files.readAllLines(expectedOutput, StandardCharsets.UTF_8),
+            Files.readAllLines(output, StandardCharsets.UTF_8));
+        try (var files = Files.list(tempDir)) {
+            Assertions.assertEquals(3, files.count(), "the part files should be deleted");
+        }
+    }
+
+    @Test
+    public void testFailedWorkersAreNotMerged(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        new InputGenerator().seed(3).invalidRate(0).write(input, 20);
+        Path output = tempDir.resolve("output.txt");
+        // the parts of an earlier run and a cache file that makes every worker fail
+        Files.write(tempDir.resolve("output.txt.part0"), List.of("stale"), StandardCharsets.UTF_8);
+        Files.write(tempDir.resolve("output.txt.part1"), List.of("stale"), StandardCharsets.UTF_8);
+        Path cachePath = tempDir.resolve("bad.bin");
+        Files.write(cachePath, "not a cache".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(FindBestPackage.EXIT_FAILURE, FindBestPackage.execute(new String[]{
+            "--workers", "2", "--cache", cachePath.toString(), "--output", output.toString(), input.toString()}));
+        Assertions.assertFalse(Files.exists(output));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("output.txt.part0")));
+    }
+
+    @Test
+    public void testRangeBeyondTheEndOfTheFile(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        Files.write(input, List.of("8 : (1,15.3,€34)"), StandardCharsets.UTF_8);
+        Path output = tempDir.resolve("output.txt");
+        Assertions.assertEquals(FindBestPackage.EXIT_FAILURE, FindBestPackage.execute(new String[]{
+            "--range", "0-" + (Files.size(input) + 10), "--output", output.toString(), input.toString()}));
+    }
+
+    @Test
+    public void testRangeOption(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        String line1 = "8 : (1,15.3,€34)";
+        String line2 = "81 : (1,53.38,€45) (2,88.62,€98)";
+        Files.write(input, List.of(line1, line2, line1), StandardCharsets.UTF_8);
+        long start = line1.getBytes(StandardCharsets.UTF_8).length + System.lineSeparator().length();
+        long end = start + line2.length() + System.lineSeparator().length();
+        Path output = tempDir.resolve("output.txt");
+        FindBestPackage.main(new String[]{"--range", start + "-" + end, "--first-line", "1", "--output", output.toString(), input.toString()});
+        Assertions.assertEquals(List.of("1"), Files.readAllLines(output, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> CommandLineOptions.parse(new String[]{"--workers", "2", "input.txt"}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> CommandLineOptions.parse(new String[]{"--workers", "2", "--output", "out", "--range", "0-10", "input.txt"}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> CommandLineOptions.parse(new String[]{"--range", "10-0", "input.txt"}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> CommandLineOptions.parse(new String[]{"--first-line", "3", "input.txt"}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> CommandLineOptions.parse(new String[]{"--range", "0-10", "--output", "out", "--watch", "input.txt"}));
+        Assertions.assertEquals(new Shard(5, 10, 2),
+            CommandLineOptions.parse(new String[]{"--range", "5-10", "--first-line", "2", "input.txt"}).getShard().orElseThrow());
+    }
+}
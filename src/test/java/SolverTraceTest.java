@@ -0,0 +1,108 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+public class SolverTraceTest {
+    private static final String LINE_1 = "81 : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3) (4,72.30,€76) (5,30.18,€9) (6,46.34,€48)";
+    private static final String LINE_2 = "75 : (1,85.31,€29) (2,14.55,€74) (3,3.98,€16) (4,26.24,€55) (5,63.69,€52) (6,76.25,€75) (7,60.02,€74) (8,93.18,€35) (9,89.95,€78)";
+
+    private PrintStream err;
+
+    @BeforeEach
+    public void setupTestErrStream() {
+        err = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @AfterEach
+    public void setupOriginalErrStream() {
+        System.setErr(err);
+    }
+
+    @Test
+    public void testRingBufferKeepsTheLastStates(@TempDir Path tempDir) throws IOException {
+        Path tracePath = tempDir.resolve("trace.bin");
+        try (SolverTrace trace = new SolverTrace(tracePath, Duration.ZERO, 4)) {
+            trace.begin(PackageSpecification.FindBestPackageStrategy.KNAPSACK);
+            for (int i = 0; i < 6; i++) {
+                trace.record(i, 100 * i, i % 2 == 0);
+            }
+            trace.end();
+            Assertions.assertTrue(trace.writeIfSlow(7));
+            Assertions.assertEquals(6, trace.getRecordedStates());
+        }
+        Assertions.assertEquals(List.of(
+            "Line 7 KNAPSACK", ": 6 states (last 4 kept), 2 expanded, 2 pruned, min capacity 2",
+            "  product 2: 1 expanded, 0 pruned",
+            "  product 3: 0 expanded, 1 pruned",
+            "  product 4: 1 expanded, 0 pruned",
+            "  product 5: 0 expanded, 1 pruned"), summarize(tracePath, 1));
+    }
+
+    @Test
+    public void testExpandedStatesOfTheSolvers(@TempDir Path tempDir) throws IOException {
+        for (PackageSpecification.FindBestPackageStrategy strategy : List.of(
+            PackageSpecification.FindBestPackageStrategy.KNAPSACK, PackageSpecification.FindBestPackageStrategy.BRANCH_AND_BOUND)) {
+            try (SolverTrace trace = new SolverTrace(tempDir.resolve("trace-" + strategy + ".bin"), Duration.ZERO)) {
+                PackageSpecification packageSpecification = new PackageSpecification(LINE_2, 1);
+                packageSpecification.setFindBestPackageStrategy(strategy);
+                packageSpecification.setTrace(trace);
+                packageSpecification.findBestPackage();
+                Assertions.assertTrue(trace.getRecordedStates() >= packageSpecification.getExploredStates(), strategy.name());
+                Assertions.assertTrue(packageSpecification.getExploredStates() > 0, strategy.name());
+            }
+        }
+    }
+
+    @Test
+    public void testOnlySlowLinesAreWritten(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        Files.write(input, List.of(LINE_1, "invalid", LINE_2), StandardCharsets.UTF_8);
+        Path output = tempDir.resolve("output.txt");
+
+        Path allLines = tempDir.resolve("all.bin");
+        FindBestPackage.main(new String[]{"--output", output.toString(), "--trace", allLines.toString(),
+            "--trace-threshold", "0", input.toString()});
+        List<String> summary = summarize(allLines, 2);
+        Assertions.assertTrue(summary.get(0).startsWith("Line 0 KNAPSACK"), summary.get(0));
+        Assertions.assertTrue(summary.stream().anyMatch(line -> line.startsWith("Line 2 KNAPSACK")), summary.toString());
+
+        Path noLines = tempDir.resolve("none.bin");
+        FindBestPackage.main(new String[]{"--output", output.toString(), "--trace", noLines.toString(),
+            "--trace-threshold", "100000", input.toString()});
+        Assertions.assertEquals(List.of(), summarize(noLines, 0));
+        Assertions.assertEquals(List.of("4", "-", "2,7"), Files.readAllLines(output, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testInvalidTraceFile(@TempDir Path tempDir) throws IOException {
+        Path tracePath = tempDir.resolve("trace.bin");
+        Files.write(tracePath, new byte[]{1, 2, 3, 4, 5, 6});
+        Assertions.assertThrows(IOException.class, () -> SolverTraceReader.summarize(tracePath, System.out));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> CommandLineOptions.parse(new String[]{"--trace-threshold", "10", "input.txt"}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> CommandLineOptions.parse(new String[]{"--trace", "trace.bin", "--workers", "2", "--output", "out", "input.txt"}));
+    }
+
+    /**
+     * @return the summary lines, with the solve time removed from the line headers as it is not deterministic
+     */
+    private static List<String> summarize(Path tracePath, int expectedLines) throws IOException {
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        Assertions.assertEquals(expectedLines, SolverTraceReader.summarize(tracePath, new PrintStream(summary, true, StandardCharsets.UTF_8)));
+        return List.of(summary.toString(StandardCharsets.UTF_8).replaceAll(" [0-9.]+ ms", "\n").lines()
+            .filter(line -> !line.isEmpty()).toArray(String[]::new));
+    }
+}
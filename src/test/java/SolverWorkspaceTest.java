@@ -0,0 +1,65 @@
+import com.google.common.collect.Sets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+public class SolverWorkspaceTest {
+    @Test
+    public void testLoadOrdersByNumber() {
+        SolverWorkspace workspace = new SolverWorkspace(15, 10000, 10000);
+        Set<Product> products = Sets.newHashSet(
+            new Product(3, 30.0, 3.0),
+            new Product(1, 10.0, 1.0),
+            new Product(2, 20.0, 2.0)
+        );
+        Assertions.assertEquals(3, workspace.load(products));
+        Assertions.assertArrayEquals(new long[]{1000, 2000, 3000}, Arrays.copyOf(workspace.getWeights(), 3));
+        Assertions.assertArrayEquals(new long[]{100, 200, 300}, Arrays.copyOf(workspace.getPrices(), 3));
+        Assertions.assertEquals(Sets.newHashSet(new Product(1, 10.0, 1.0), new Product(3, 30.0, 3.0)), workspace.getProducts(0b101));
+    }
+
+    @Test
+    public void testSolversAreReused() {
+        SolverWorkspace workspace = new SolverWorkspace(15, 10000, 10000);
+        Assertions.assertSame(workspace.getKnapsack(), workspace.getKnapsack());
+        Assertions.assertSame(workspace.getPriceIndexedKnapsack(), workspace.getPriceIndexedKnapsack());
+        Assertions.assertSame(workspace.getSubsetSumsSolver(), workspace.getSubsetSumsSolver());
+        Assertions.assertSame(workspace.getBoundedKnapsack(), workspace.getBoundedKnapsack());
+        Assertions.assertSame(workspace.getParetoSolver(), workspace.getParetoSolver());
+        Assertions.assertSame(workspace.getLargeInstanceKnapsack(null), workspace.getLargeInstanceKnapsack(null));
+    }
+
+    @Test
+    public void testLargeInstanceKnapsackSequentialByDefault() {
+        SolverWorkspace workspace = new SolverWorkspace(15, 10000, 10000);
+        Assertions.assertNull(workspace.getLargeInstanceKnapsack(null).getPool());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            LargeInstanceKnapsack parallel = workspace.getLargeInstanceKnapsack(pool);
+            Assertions.assertSame(pool, parallel.getPool());
+            Assertions.assertSame(parallel, workspace.getLargeInstanceKnapsack(pool));
+            Assertions.assertNull(workspace.getLargeInstanceKnapsack(null).getPool());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCurrentWorkspacePerThread() throws Exception {
+        SolverWorkspace current = SolverWorkspace.current();
+        Assertions.assertSame(current, SolverWorkspace.current());
+        Assertions.assertNotSame(current, CompletableFuture.supplyAsync(SolverWorkspace::current).get());
+    }
+
+    @Test
+    public void testTooManyProducts() {
+        SolverWorkspace workspace = new SolverWorkspace(1, 10000, 10000);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> workspace.load(Sets.newHashSet(
+            new Product(1, 10.0, 1.0),
+            new Product(2, 20.0, 2.0))));
+    }
+}
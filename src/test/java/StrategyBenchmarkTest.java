@@ -0,0 +1,42 @@
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Measures the average time to find the best package of lines with 15 products, run with: mvn test -Pbenchmark
+@Tag("benchmark")
+public class StrategyBenchmarkTest {
+    private static final int LINES = 500;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 3;
+
+    @ParameterizedTest
+    @EnumSource(PackageSpecification.FindBestPackageStrategy.class)
+    public void benchmarkStrategy(PackageSpecification.FindBestPackageStrategy strategy) {
+        List<PackageSpecification> packageSpecifications = generate(LINES, new Random(42));
+        packageSpecifications.forEach(packageSpecification -> packageSpecification.setFindBestPackageStrategy(strategy));
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            packageSpecifications.forEach(PackageSpecification::findBestPackage);
+        }
+        long startTS = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            packageSpecifications.forEach(PackageSpecification::findBestPackage);
+        }
+        long endTS = System.nanoTime();
+        System.out.printf("%-12s %8.1f us/line (%s)%n", strategy, (endTS - startTS) / 1000.0 / (ROUNDS * LINES),
+            SubsetEvaluator.getDefault().getClass().getSimpleName());
+    }
+
+    private static List<PackageSpecification> generate(int lines, Random random) {
+        return IntStream.range(0, lines)
+            .mapToObj(line -> new PackageSpecification(random.nextInt(101),
+                IntStream.rangeClosed(1, 15)
+                    .mapToObj(number -> new Product(number, random.nextInt(10001) / 100.0, random.nextInt(101)))
+                    .collect(Collectors.toSet())))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+public class StrategySelectorTest {
+    private static final PackageSpecification.FindBestPackageStrategy FASTEST = PackageSpecification.FindBestPackageStrategy.PARETO;
+
+    // every strategy takes a fixed time, the fastest one 1 microsecond and the others 5
+    private static long solveNanos(PackageSpecification.FindBestPackageStrategy strategy) {
+        return strategy == FASTEST ? 1_000 : 5_000;
+    }
+
+    private static Map<PackageSpecification.FindBestPackageStrategy, Integer> solve(StrategySelector selector, int bucket, int lines) {
+        return solve(selector, bucket, lines, StrategySelectorTest::solveNanos);
+    }
+
+    /**
+     * @return the number of lines solved by every strategy
+     */
+    private static Map<PackageSpecification.FindBestPackageStrategy, Integer> solve(
+        StrategySelector selector, int bucket, int lines, ToLongFunction<PackageSpecification.FindBestPackageStrategy> solveNanos) {
+        Map<PackageSpecification.FindBestPackageStrategy, Integer> selections = new EnumMap<>(PackageSpecification.FindBestPackageStrategy.class);
+        for (int line = 0; line < lines; line++) {
+            PackageSpecification.FindBestPackageStrategy strategy = selector.select(bucket);
+            selections.merge(strategy, 1, Integer::sum);
+            selector.record(bucket, strategy, solveNanos.applyAsLong(strategy));
+        }
+        return selections;
+    }
+
+    @Test
+    public void testBucket() {
+        // few products that all fit, then many products with a tight capacity and a large weight spread
+        Assertions.assertEquals(6, StrategySelector.bucket(3, 1000, 600, 100, 300));
+        Assertions.assertEquals(25, StrategySelector.bucket(15, 1000, 5000, 10, 900));
+        Assertions.assertEquals(StrategySelector.BUCKETS - 1, StrategySelector.bucket(100, 1000, 1000, 1, 1000));
+    }
+
+    @Test
+    public void testTriesEveryStrategyFirst() {
+        StrategySelector selector = new StrategySelector();
+        Map<PackageSpecification.FindBestPackageStrategy, Integer> selections = solve(selector, 0, StrategySelector.STRATEGIES.length);
+        Assertions.assertEquals(List.of(StrategySelector.STRATEGIES), List.copyOf(selections.keySet()));
+    }
+
+    @Test
+    public void testConvergesOnTheFastestStrategy() {
+        StrategySelector selector = new StrategySelector();
+        Map<PackageSpecification.FindBestPackageStrategy, Integer> selections = solve(selector, 0, 10_000);
+        Assertions.assertEquals(FASTEST, selector.getFastest(0));
+        // the exploration is bounded by its rate
+        int explored = 10_000 - selections.get(FASTEST);
+        Assertions.assertTrue(explored < 2 * StrategySelector.EXPLORATION_RATE * 10_000, "Explored lines: " + explored);
+        Assertions.assertTrue(selections.size() > 2, "Explored strategies: " + selections.keySet());
+        // the other buckets are not affected
+        Assertions.assertEquals(StrategySelector.STRATEGIES[0], selector.select(1));
+    }
+
+    @Test
+    public void testFollowsTheDrift() {
+        StrategySelector selector = new StrategySelector();
+        solve(selector, 0, 1_000);
+        // the fastest strategy becomes the slowest one, the exploration finds the new fastest one
+        solve(selector, 0, 10_000,
+            strategy -> strategy == FASTEST ? 9_000 : strategy == PackageSpecification.FindBestPackageStrategy.KNAPSACK ? 2_000 : 5_000);
+        Assertions.assertEquals(PackageSpecification.FindBestPackageStrategy.KNAPSACK, selector.getFastest(0));
+    }
+
+    @Test
+    public void testExploresMuchSlowerStrategiesRarely() {
+        StrategySelector selector = new StrategySelector();
+        // the exploration costs at most its rate of the fastest time, so 100 times slower strategies are explored 100 times less
+        int explored = 100_000 - solve(selector, 0, 100_000, strategy -> strategy == FASTEST ? 1_000 : 100_000).get(FASTEST);
+        Assertions.assertTrue(explored > 0 && explored < 2 * StrategySelector.EXPLORATION_RATE * 100_000 / 100, "Explored lines: " + explored);
+    }
+
+    @Test
+    public void testToleratesSlowOutliers() {
+        StrategySelector selector = new StrategySelector();
+        solve(selector, 0, 1_000);
+        // a garbage collection pause slows down one line of the fastest strategy
+        selector.record(0, FASTEST, 1_000_000);
+        Assertions.assertEquals(FASTEST, selector.getFastest(0));
+    }
+
+    @Test
+    public void testExportAndLoad(@TempDir Path tempDir) throws IOException {
+        Path table = tempDir.resolve("table.properties");
+        StrategySelector selector = new StrategySelector();
+        solve(selector, 3, 1_000);
+        selector.export(table);
+        Assertions.assertFalse(Files.exists(tempDir.resolve("table.properties.tmp")));
+
+        StrategySelector loaded = new StrategySelector();
+        loaded.load(table);
+        Assertions.assertEquals(FASTEST, loaded.getFastest(3));
+        // the loaded table is not explored again
+        Assertions.assertEquals(FASTEST, loaded.select(3));
+        Assertions.assertEquals(StrategySelector.STRATEGIES[0], loaded.select(0));
+    }
+
+    @Test
+    public void testLoadIgnoresUnknownStrategies(@TempDir Path tempDir) throws IOException {
+        Path table = tempDir.resolve("table.properties");
+        Files.write(table, List.of("bucket2.RETIRED=10.0,5", "bucket2.KNAPSACK=20.0,5"), StandardCharsets.UTF_8);
+        StrategySelector selector = new StrategySelector();
+        selector.load(table);
+        Assertions.assertEquals(PackageSpecification.FindBestPackageStrategy.KNAPSACK, selector.getFastest(2));
+    }
+
+    @Test
+    public void testLoadInvalidTable(@TempDir Path tempDir) throws IOException {
+        Path table = tempDir.resolve("table.properties");
+        StrategySelector selector = new StrategySelector();
+        for (String entry : List.of("bucket99.KNAPSACK=1.0,1", "bucket1.KNAPSACK=1.0", "other=1.0,1", "bucket1.KNAPSACK=0.5,1")) {
+            Files.write(table, List.of(entry), StandardCharsets.UTF_8);
+            Assertions.assertThrows(IOException.class, () -> selector.load(table), entry);
+        }
+    }
+
+    @Test
+    public void testRecordRejectsOtherStrategies() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new StrategySelector().record(0, PackageSpecification.FindBestPackageStrategy.BRUTE_FORCE, 1));
+    }
+}
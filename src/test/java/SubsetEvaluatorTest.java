@@ -0,0 +1,63 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+public class SubsetEvaluatorTest {
+    static Stream<SubsetEvaluator> evaluators() {
+        return Stream.of(new ScalarSubsetEvaluator(), SubsetEvaluator.getDefault());
+    }
+
+    @ParameterizedTest
+    @MethodSource("evaluators")
+    public void testComputeSums(SubsetEvaluator evaluator) {
+        long[] sums = new long[8];
+        evaluator.computeSums(new long[]{1, 2, 4}, 3, sums);
+        Assertions.assertArrayEquals(new long[]{0, 1, 2, 3, 4, 5, 6, 7}, sums);
+    }
+
+    @ParameterizedTest
+    @MethodSource("evaluators")
+    public void testFindBestPrefersMinWeightAndLowestMask(SubsetEvaluator evaluator) {
+        long[] weights = {1000, 1500, 800, 800};
+        long[] prices = {2000, 2200, 2500, 2500};
+        long[] weightSums = new long[16];
+        long[] priceSums = new long[16];
+        evaluator.computeSums(weights, 4, weightSums);
+        evaluator.computeSums(prices, 4, priceSums);
+        // all the pairs exceed the max weight, {2} and {3} have the same price and weight
+        Assertions.assertEquals(0b0100, evaluator.findBest(weightSums, priceSums, 16, 1500));
+        // nothing fits
+        Assertions.assertEquals(0, evaluator.findBest(weightSums, priceSums, 16, 100));
+    }
+
+    @Test
+    public void testSameResultAsScalarEvaluator() {
+        Random random = new Random(42);
+        SubsetEvaluator scalar = new ScalarSubsetEvaluator();
+        SubsetEvaluator evaluator = SubsetEvaluator.getDefault();
+        for (int test = 0; test < 200; test++) {
+            int n = random.nextInt(16);
+            long[] weights = random.longs(n, 0, 10001).toArray();
+            long[] prices = random.longs(n, 0, 101).map(price -> price * 100).toArray();
+            long maxWeight = random.nextInt(101) * 100;
+            int subsets = 1 << n;
+            long[] weightSums = new long[subsets];
+            long[] priceSums = new long[subsets];
+            evaluator.computeSums(weights, n, weightSums);
+            evaluator.computeSums(prices, n, priceSums);
+            long[] expectedWeightSums = new long[subsets];
+            long[] expectedPriceSums = new long[subsets];
+            scalar.computeSums(weights, n, expectedWeightSums);
+            scalar.computeSums(prices, n, expectedPriceSums);
+            Assertions.assertArrayEquals(expectedWeightSums, weightSums);
+            Assertions.assertArrayEquals(expectedPriceSums, priceSums);
+            Assertions.assertEquals(
+                scalar.findBest(expectedWeightSums, expectedPriceSums, subsets, maxWeight),
+                evaluator.findBest(weightSums, priceSums, subsets, maxWeight));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Runs {@link FindBestPackage} in the current JVM and then prints one line with the run statistics:
+ * the elapsed time, the lines per second, the peak resident set size (only on Linux) and the GC pauses.<br>
+ * It is started in a separate JVM for every run by {@link ThroughputBenchmarkTest} so the statistics are not mixed.
+ * Usage: <code>ThroughputBenchmark &lt;number of lines&gt; &lt;FindBestPackage arguments&gt;</code>
+ */
+public class ThroughputBenchmark {
+    public static void main(String[] args) throws IOException {
+        long lines = Long.parseLong(args[0]);
+        String[] findBestPackageArgs = new String[args.length - 1];
+        System.arraycopy(args, 1, findBestPackageArgs, 0, findBestPackageArgs.length);
+
+        long startTS = System.nanoTime();
+        FindBestPackage.main(findBestPackageArgs);
+        long endTS = System.nanoTime();
+
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(gc.getCollectionCount(), 0);
+            gcMillis += Math.max(gc.getCollectionTime(), 0);
+        }
+        double seconds = (endTS - startTS) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "time=%.2fs linesPerSecond=%.0f peakRss=%s gcCount=%d gcTime=%dms",
+            seconds, lines / seconds, peakRss(), gcCount, gcMillis));
+    }
+
+    private static String peakRss() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return "n/a";
+        }
+        return Files.readAllLines(status).stream()
+            .filter(line -> line.startsWith("VmHWM:"))
+            .map(line -> line.substring("VmHWM:".length()).trim().replace(" ", ""))
+            .findFirst()
+            .orElse("n/a");
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Measures the whole FindBestPackage pipeline over generated files, run with: mvn test -Pbenchmark
+// The number of lines can be changed with -Dbenchmark.lines=<lines>
+@Tag("benchmark")
+public class ThroughputBenchmarkTest {
+    private static final long LINES = Long.getLong("benchmark.lines", 20_000);
+    // the brute force strategy is too slow for the big files, it is only cross-checked on a small one
+    private static final long BRUTE_FORCE_LINES = 500;
+
+    @Test
+    public void benchmarkDefaultDistribution(@TempDir Path tempDir) throws Exception {
+        benchmark(tempDir, "default", new InputGenerator());
+    }
+
+    @Test
+    public void benchmarkTightCapacity(@TempDir Path tempDir) throws Exception {
+        benchmark(tempDir, "tight capacity", new InputGenerator().capacityTightness(0.1));
+    }
+
+    @Test
+    public void benchmarkLooseCapacity(@TempDir Path tempDir) throws Exception {
+        benchmark(tempDir, "loose capacity", new InputGenerator().capacityTightness(0.9).products(10, 15));
+    }
+
+    @Test
+    public void benchmarkManyDuplicates(@TempDir Path tempDir) throws Exception {
+        benchmark(tempDir, "many duplicates", new InputGenerator().duplicateRate(0.6).products(10, 15));
+    }
+
+    @Test
+    public void benchmarkManyInvalidLines(@TempDir Path tempDir) throws Exception {
+        benchmark(tempDir, "many invalid lines", new InputGenerator().invalidRate(0.3));
+    }
+
+    private void benchmark(Path tempDir, String name, InputGenerator generator) throws Exception {
+        Path input = tempDir.resolve("input.txt");
+        generator.write(input, LINES);
+        Path smallInput = tempDir.resolve("small-input.txt");
+        generator.write(smallInput, BRUTE_FORCE_LINES);
+
+        List<String> expectedOutput = null;
+        List<String> expectedSmallOutput = null;
+        for (PackageSpecification.FindBestPackageStrategy strategy : PackageSpecification.FindBestPackageStrategy.values()) {
+            Path smallOutput = tempDir.resolve("small-output-" + strategy + ".txt");
+            run(BRUTE_FORCE_LINES, strategy, smallInput, smallOutput);
+            List<String> smallOutputLines = Files.readAllLines(smallOutput, StandardCharsets.UTF_8);
+            if (expectedSmallOutput == null) {
+                expectedSmallOutput = smallOutputLines;
+            }
+            Assertions.assertEquals(expectedSmallOutput, smallOutputLines, strategy + " has a different output");
+            if (strategy == PackageSpecification.FindBestPackageStrategy.BRUTE_FORCE) {
+                continue;
+            }
+
+            Path output = tempDir.resolve("output-" + strategy + ".txt");
+            String statistics = run(LINES, strategy, input, output);
+            System.out.printf("%-20s %-16s %s%n", name, strategy, statistics);
+            List<String> outputLines = Files.readAllLines(output, StandardCharsets.UTF_8);
+            if (expectedOutput == null) {
+                expectedOutput = outputLines;
+            }
+            Assertions.assertEquals(expectedOutput, outputLines, strategy + " has a different output");
+        }
+    }
+
+    /**
+     * Runs the program in a separate JVM with the same class path.
+     *
+     * @return the statistics printed by {@link ThroughputBenchmark}
+     */
+    private static String run(long lines, PackageSpecification.FindBestPackageStrategy strategy, Path input, Path output)
+        throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            command.add("--add-modules");
+            command.add("jdk.incubator.vector");
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ThroughputBenchmark.class.getName());
+        command.add(Long.toString(lines));
+        command.add("--strategy");
+        command.add(strategy.name());
+        command.add("--output");
+        command.add(output.toString());
+        command.add(input.toString());
+
+        Process process = new ProcessBuilder(command)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        String statistics = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+        Assertions.assertTrue(process.waitFor(1, TimeUnit.HOURS));
+        Assertions.assertEquals(0, process.exitValue());
+        return statistics;
+    }
+}
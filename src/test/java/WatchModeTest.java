@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class WatchModeTest {
+    private static final String LINE_1 = "81 : (1,53.38,€45) (2,88.62,€98) (3,78.48,€3) (4,72.30,€76) (5,30.18,€9) (6,46.34,€48)";
+    private static final String LINE_2 = "8 : (1,15.3,€34)";
+    private static final String LINE_3 = "75 : (1,85.31,€29) (2,14.55,€74) (3,3.98,€16) (4,26.24,€55) (5,63.69,€52) (6,76.25,€75) (7,60.02,€74) (8,93.18,€35) (9,89.95,€78)";
+    private static final String LINE_4 = "56 : (1,90.72,€13) (2,33.80,€40) (3,43.15,€10) (4,37.97,€16) (5,46.81,€36) (6,48.77,€79) (7,81.80,€45) (8,19.36,€79) (9,6.76,€64)";
+
+    private PrintStream err;
+
+    @BeforeEach
+    public void setupTestErrStream() {
+        err = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @AfterEach
+    public void setupOriginalErrStream() {
+        System.setErr(err);
+    }
+
+    @Test
+    public void testUpdateSolvesOnlyTheChangedLines(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        Path output = tempDir.resolve("output.txt");
+        WatchMode watchMode = new WatchMode(CommandLineOptions.parse(new String[]{"--output", output.toString(), "--watch", input.toString()}));
+
+        Files.write(input, List.of(LINE_1, LINE_2, LINE_3), StandardCharsets.UTF_8);
+        watchMode.update();
+        Assertions.assertEquals(List.of("4", "-", "2,7"), Files.readAllLines(output, StandardCharsets.UTF_8));
+        Assertions.assertEquals(3, watchMode.getSolvedLines());
+        Assertions.assertEquals(0, watchMode.getReusedLines());
+
+        // a line is replaced, another one moves and an invalid one is added
+        Files.write(input, List.of(LINE_3, "", LINE_4, LINE_1, "invalid"), StandardCharsets.UTF_8);
+        watchMode.update();
+        Assertions.assertEquals(List.of("2,7", "8,9", "4", "-"), Files.readAllLines(output, StandardCharsets.UTF_8));
+        Assertions.assertEquals(2, watchMode.getSolvedLines());
+        Assertions.assertEquals(2, watchMode.getReusedLines());
+
+        // the repeated lines are solved once
+        Files.write(input, List.of(LINE_2, LINE_2, LINE_3, LINE_2), StandardCharsets.UTF_8);
+        watchMode.update();
+        Assertions.assertEquals(List.of("-", "-", "2,7", "-"), Files.readAllLines(output, StandardCharsets.UTF_8));
+        Assertions.assertEquals(1, watchMode.getSolvedLines());
+        Assertions.assertEquals(3, watchMode.getReusedLines());
+
+        // the results of the removed lines are dropped
+        Files.write(input, List.of(LINE_1), StandardCharsets.UTF_8);
+        watchMode.update();
+        Assertions.assertEquals(List.of("4"), Files.readAllLines(output, StandardCharsets.UTF_8));
+        Assertions.assertEquals(1, watchMode.getSolvedLines());
+    }
+
+    @Test
+    public void testUpdateReusesTheApproximatePackages(@TempDir Path tempDir) throws IOException {
+        Path input = tempDir.resolve("input.txt");
+        Path output = tempDir.resolve("output.txt");
+        WatchMode watchMode = new WatchMode(CommandLineOptions.parse(
+            new String[]{"--output", output.toString(), "--strategy", "APPROXIMATE", "--watch", input.toString()}));
+
+        Files.write(input, List.of(LINE_1, LINE_3), StandardCharsets.UTF_8);
+        watchMode.update();
+        List<String> expected = Files.readAllLines(output, StandardCharsets.UTF_8);
+        Assertions.assertEquals(2, watchMode.getSolvedLines());
+
+        // the approximate packages are not optimal but they do not depend on a time budget
+        Files.write(input, List.of(LINE_1, LINE_3, LINE_4), StandardCharsets.UTF_8);
+        watchMode.update();
+        Assertions.assertEquals(expected, Files.readAllLines(output, StandardCharsets.UTF_8).subList(0, 2));
+        Assertions.assertEquals(1, watchMode.getSolvedLines());
+        Assertions.assertEquals(2, watchMode.getReusedLines());
+    }
+
+    @Test
+    public void testWatchUpdatesTheOutputWhenTheInputChanges(@TempDir Path tempDir) throws Exception {
+        Path input = tempDir.resolve("input.txt");
+        Path output = tempDir.resolve("output.txt");
+        Files.write(input, List.of(LINE_1), StandardCharsets.UTF_8);
+        WatchMode watchMode = new WatchMode(CommandLineOptions.parse(new String[]{"--output", output.toString(), "--watch", input.toString()}));
+
+        Thread watcher = new Thread(() -> {
+            try {
+                watchMode.watch();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            } catch (InterruptedException e) {
+                // stopped by the test
+            }
+        });
+        watcher.start();
+        try {
+            waitForOutput(output, List.of("4"));
+            Files.write(input, List.of(LINE_1, LINE_4), StandardCharsets.UTF_8);
+            waitForOutput(output, List.of("4", "8,9"));
+        } finally {
+            watcher.interrupt();
+            watcher.join(10_000);
+        }
+        Assertions.assertFalse(watcher.isAlive());
+    }
+
+    private static void waitForOutput(Path output, List<String> expected) throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!(Files.exists(output) && expected.equals(Files.readAllLines(output, StandardCharsets.UTF_8)))) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "The output was not updated to " + expected);
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> CommandLineOptions.parse(new String[]{"--watch", "input.txt"}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> CommandLineOptions.parse(new String[]{"--watch", "--output", "output.txt", "--checkpoint", "checkpoint.properties", "input.txt"}));
+    }
+}
@@ -0,0 +1,66 @@
+package com.pmihnea.bestpackage.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class Hash128Test {
+    private static List<Long> hash(long... values) {
+        Hash128 hash = new Hash128();
+        for (long value : values) {
+            hash.putLong(value);
+        }
+        return List.of(hash.getHigh(), hash.getLow());
+    }
+
+    @Test
+    public void testSameValuesSameHash() {
+        Assertions.assertEquals(hash(8100, 2, 1, 5338, 4500), hash(8100, 2, 1, 5338, 4500));
+        Assertions.assertEquals(hash(), hash());
+    }
+
+    @Test
+    public void testOrderAndLengthChangeTheHash() {
+        Assertions.assertNotEquals(hash(1, 2), hash(2, 1));
+        Assertions.assertNotEquals(hash(0), hash(0, 0));
+        Assertions.assertNotEquals(hash(), hash(0));
+    }
+
+    private static List<Long> hash(CharSequence chars) {
+        Hash128 hash = new Hash128().putChars(chars);
+        return List.of(hash.getHigh(), hash.getLow());
+    }
+
+    @Test
+    public void testChars() {
+        Assertions.assertEquals(hash("8 : (1,15.3,€34)"), hash(new StringBuilder("8 : (1,15.3,€34)")));
+        Assertions.assertNotEquals(hash("8 : (1,15.3,€34)"), hash("8 : (1,15.3,€43)"));
+        // the same values without the length prefix
+        Assertions.assertNotEquals(hash(""), hash("\0"));
+        Assertions.assertNotEquals(hash("a"), hash("a\0"));
+        Assertions.assertEquals(hash(3, 'a' | (long) 'b' << 16 | (long) 'c' << 32), hash("abc"));
+    }
+
+    @Test
+    public void testNoCollisionsOnSimilarSpecifications() {
+        // every max weight with every single product of small weight and price, differing by a few hundredths
+        Set<Long> highs = new HashSet<>();
+        Set<Long> lows = new HashSet<>();
+        int count = 0;
+        for (long maxWeight = 0; maxWeight < 20; maxWeight++) {
+            for (long weight = 0; weight < 50; weight++) {
+                for (long price = 0; price < 50; price++) {
+                    List<Long> key = hash(maxWeight, 1, 1, weight, price);
+                    highs.add(key.get(0));
+                    lows.add(key.get(1));
+                    count++;
+                }
+            }
+        }
+        Assertions.assertEquals(count, highs.size());
+        Assertions.assertEquals(count, lows.size());
+    }
+}
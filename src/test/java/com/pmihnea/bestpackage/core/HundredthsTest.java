@@ -0,0 +1,22 @@
+package com.pmihnea.bestpackage.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class HundredthsTest {
+    @Test
+    public void testParseRegion() {
+        Assertions.assertEquals(5338, Hundredths.parse("(1,53.38,€45)", 3, 8));
+        Assertions.assertEquals(4500, Hundredths.parse("(1,53.38,€45)", 10, 12));
+        Assertions.assertEquals(-50, Hundredths.parse("x-.5x", 1, 4));
+    }
+
+    @Test
+    public void testParseInvalidRegion() {
+        NumberFormatException e = Assertions.assertThrows(NumberFormatException.class,
+            () -> Hundredths.parse("(1,53.385,€45)", 3, 9));
+        Assertions.assertEquals("More than 2 decimals: 53.385", e.getMessage());
+        Assertions.assertThrows(NumberFormatException.class, () -> Hundredths.parse("45", 1, 1));
+        Assertions.assertThrows(NumberFormatException.class, () -> Hundredths.parse("4a5", 0, 3));
+    }
+}
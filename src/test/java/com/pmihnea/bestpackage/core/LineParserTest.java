@@ -0,0 +1,68 @@
+package com.pmihnea.bestpackage.core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class LineParserTest {
+    @Test
+    public void testParse() {
+        LineParser parser = new LineParser();
+        parser.parse("81 : (1,53.38,€45) (2,88.62,€98)");
+        Assertions.assertEquals(8100, parser.getMaxWeight());
+        Assertions.assertEquals(2, parser.getCount());
+        Assertions.assertEquals(1, parser.getNumber(0));
+        Assertions.assertEquals(5338, parser.getWeight(0));
+        Assertions.assertEquals(4500, parser.getPrice(0));
+        Assertions.assertEquals(2, parser.getNumber(1));
+        Assertions.assertEquals(8862, parser.getWeight(1));
+        Assertions.assertEquals(9800, parser.getPrice(1));
+
+        // the arrays are reused and grow with the lines
+        StringBuilder line = new StringBuilder("8  :");
+        for (int i = 1; i <= 100; i++) {
+            line.append("  (").append(i).append(",1.5,€").append(i).append(')');
+        }
+        parser.parse(line.toString());
+        Assertions.assertEquals(800, parser.getMaxWeight());
+        Assertions.assertEquals(100, parser.getCount());
+        Assertions.assertEquals(100, parser.getNumber(99));
+        Assertions.assertEquals(150, parser.getWeight(99));
+        Assertions.assertEquals(10000, parser.getPrice(99));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "81",
+        "81 :",
+        "81: (1,53.38,€45)",
+        " 81 : (1,53.38,€45)",
+        "81 :(1,53.38,€45)",
+        "81 : (1,53.38,€45) ",
+        "81 : (1,53.38,45)",
+        "81 : (1,,€45)",
+        "81 : (1,53.38,€45)(2,88.62,€98)",
+        "81 : (1,53.38,€45) (2,88.62)"
+    })
+    public void testInvalidStructure(String line) {
+        LineFormatException e = Assertions.assertThrows(LineFormatException.class, () -> new LineParser().parse(line));
+        Assertions.assertEquals(LineParser.LINE_STRUCTURE, e.getTokenName());
+        Assertions.assertEquals(line, e.getToken());
+    }
+
+    @Test
+    public void testInvalidTokens() {
+        assertInvalidToken("8a1 : (x,53.385,€4.5.)", LineParser.MAX_WEIGHT, "8a1");
+        assertInvalidToken("81 : (1,53.38,€45) (x,53.385,€4.5.)", LineParser.PRODUCT_NUMBER, "x");
+        assertInvalidToken("81 : (1,53.385,€4.5.)", LineParser.PRODUCT_WEIGHT, "53.385");
+        assertInvalidToken("81 : (1,53.38,€4.5.)", LineParser.PRODUCT_PRICE, "4.5.");
+    }
+
+    private static void assertInvalidToken(String line, String tokenName, String token) {
+        LineFormatException e = Assertions.assertThrows(LineFormatException.class, () -> new LineParser().parse(line));
+        Assertions.assertEquals(tokenName, e.getTokenName());
+        Assertions.assertEquals(token, e.getToken());
+    }
+}